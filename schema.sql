@@ -112,9 +112,13 @@ CREATE INDEX idx_doctors_department ON doctors (department_id);
 CREATE INDEX idx_appointments_date ON appointments (appointment_date);
 CREATE INDEX idx_appointments_patient ON appointments (patient_id);
 CREATE INDEX idx_appointments_doctor ON appointments (doctor_id);
+CREATE INDEX idx_appointments_doctor_slot ON appointments (doctor_id, appointment_date, appointment_time);
 CREATE INDEX idx_prescriptions_patient ON prescriptions (patient_id);
 CREATE INDEX idx_prescriptions_doctor ON prescriptions (doctor_id);
+CREATE INDEX idx_prescriptions_date ON prescriptions (prescription_date, id);
+CREATE INDEX idx_prescription_items_medication ON prescription_items (medication);
 CREATE INDEX idx_inventory_name ON medical_inventory (item_name);
+CREATE FULLTEXT INDEX ft_patients_search ON patients (first_name, last_name, email, phone);
 
 -- Sample Data
 INSERT INTO departments (name) VALUES ('Cardiology'), ('Neurology'), ('Orthopedics');
@@ -4,10 +4,17 @@ import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.example.dao.MedicalLogDAO;
+import org.example.service.ReferenceData;
+import org.example.util.DatabaseConnection;
+import org.example.util.FxAsync;
+import org.example.util.MongoDBConnection;
 
 public class Main extends Application {
     @Override
     public void start(Stage primaryStage) throws Exception {
+        // Before the first screen, so it can be served from the previous run's snapshot
+        ReferenceData.warmStart();
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/MainView.fxml"));
         Scene scene = new Scene(loader.load(), 1024, 720);
         primaryStage.setTitle("Hospital Management System - v2.0");
@@ -15,6 +22,17 @@ public class Main extends Application {
         primaryStage.setResizable(true);
         primaryStage.setMaximized(true);
         primaryStage.show();
+
+        Thread.ofVirtual().name("medical-log-indexes").start(MedicalLogDAO::ensureIndexes);
+    }
+
+    @Override
+    public void stop() {
+        FxAsync.shutdown();
+        MedicalLogDAO.shutdown();
+        ReferenceData.shutdown();
+        MongoDBConnection.close();
+        DatabaseConnection.closeConnection();
     }
 
     public static void main(String[] args) {
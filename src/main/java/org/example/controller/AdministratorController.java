@@ -2,8 +2,10 @@ package org.example.controller;
 
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.layout.VBox;
 import org.example.service.HospitalService;
+import org.example.util.FxAsync;
 import java.util.Map;
 
 public class AdministratorController {
@@ -30,45 +32,50 @@ public class AdministratorController {
     private Label inventoryCountLabel;
     @FXML
     private VBox contentArea;
+    @FXML
+    private ProgressIndicator busyIndicator;
 
     @FXML
     public void initialize() {
+        if (busyIndicator != null)
+            busyIndicator.visibleProperty().bind(FxAsync.busyProperty());
         refreshDashboard();
     }
 
     private void refreshDashboard() {
-        try {
-            Map<String, Object> stats = hospitalService.getSystemStatistics();
-            if (patientCountLabel != null)
-                patientCountLabel.setText(String.valueOf(stats.get("totalPatients")));
-            if (doctorCountLabel != null)
-                doctorCountLabel.setText(String.valueOf(stats.get("totalDoctors")));
-            if (appointmentCountLabel != null)
-                appointmentCountLabel.setText(String.valueOf(stats.get("totalAppointments")));
-            if (inventoryCountLabel != null)
-                inventoryCountLabel.setText(String.valueOf(stats.get("totalInventory")));
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        FxAsync.runLatest("dashboard", hospitalService::getSystemStatistics, this::showStatistics, null);
+    }
+
+    private void showStatistics(Map<String, Object> stats) {
+        if (patientCountLabel != null)
+            patientCountLabel.setText(String.valueOf(stats.get("totalPatients")));
+        if (doctorCountLabel != null)
+            doctorCountLabel.setText(String.valueOf(stats.get("totalDoctors")));
+        if (appointmentCountLabel != null)
+            appointmentCountLabel.setText(String.valueOf(stats.get("totalAppointments")));
+        if (inventoryCountLabel != null)
+            inventoryCountLabel.setText(String.valueOf(stats.get("totalInventory")));
     }
 
     // Patient Actions
     @FXML
     private void addPatient() {
-        patientController.addPatient();
-        refreshDashboard();
+        patientController.addPatient(this::refreshDashboard);
     }
 
     @FXML
     private void updatePatient() {
-        patientController.updatePatient();
-        refreshDashboard();
+        patientController.updatePatient(this::refreshDashboard);
     }
 
     @FXML
     private void deletePatient() {
-        patientController.deletePatient();
-        refreshDashboard();
+        patientController.deletePatient(this::refreshDashboard);
+    }
+
+    @FXML
+    private void importPatients() {
+        patientController.importPatients(this::refreshDashboard);
     }
 
     @FXML
@@ -84,20 +91,17 @@ public class AdministratorController {
     // Doctor Actions
     @FXML
     private void addDoctor() {
-        doctorController.addDoctor();
-        refreshDashboard();
+        doctorController.addDoctor(this::refreshDashboard);
     }
 
     @FXML
     private void updateDoctor() {
-        doctorController.updateDoctor();
-        refreshDashboard();
+        doctorController.updateDoctor(this::refreshDashboard);
     }
 
     @FXML
     private void deleteDoctor() {
-        doctorController.deleteDoctor();
-        refreshDashboard();
+        doctorController.deleteDoctor(this::refreshDashboard);
     }
 
     @FXML
@@ -113,20 +117,17 @@ public class AdministratorController {
     // Appointment Actions
     @FXML
     private void scheduleAppointment() {
-        appointmentController.scheduleAppointment();
-        refreshDashboard();
+        appointmentController.scheduleAppointment(this::refreshDashboard);
     }
 
     @FXML
     private void updateAppointment() {
-        appointmentController.updateAppointment();
-        refreshDashboard();
+        appointmentController.updateAppointment(this::refreshDashboard);
     }
 
     @FXML
     private void deleteAppointment() {
-        appointmentController.deleteAppointment();
-        refreshDashboard();
+        appointmentController.deleteAppointment(this::refreshDashboard);
     }
 
     @FXML
@@ -142,20 +143,17 @@ public class AdministratorController {
     // Inventory Actions
     @FXML
     private void addInventoryItem() {
-        inventoryController.addInventoryItem();
-        refreshDashboard();
+        inventoryController.addInventoryItem(this::refreshDashboard);
     }
 
     @FXML
     private void updateInventoryItem() {
-        inventoryController.updateInventoryItem();
-        refreshDashboard();
+        inventoryController.updateInventoryItem(this::refreshDashboard);
     }
 
     @FXML
     private void deleteInventoryItem() {
-        inventoryController.deleteInventoryItem();
-        refreshDashboard();
+        inventoryController.deleteInventoryItem(this::refreshDashboard);
     }
 
     @FXML
@@ -166,20 +164,17 @@ public class AdministratorController {
     // Prescription Actions
     @FXML
     private void addPrescription() {
-        prescriptionController.addPrescription();
-        refreshDashboard();
+        prescriptionController.addPrescription(this::refreshDashboard);
     }
 
     @FXML
     private void updatePrescription() {
-        prescriptionController.updatePrescription();
-        refreshDashboard();
+        prescriptionController.updatePrescription(this::refreshDashboard);
     }
 
     @FXML
     private void deletePrescription() {
-        prescriptionController.deletePrescription();
-        refreshDashboard();
+        prescriptionController.deletePrescription(this::refreshDashboard);
     }
 
     @FXML
@@ -202,4 +197,14 @@ public class AdministratorController {
     private void generatePerformanceReport() {
         reportController.generatePerformanceReport();
     }
+
+    @FXML
+    private void generateMedicalLogReport() {
+        reportController.generateMedicalLogReport();
+    }
+
+    @FXML
+    private void generatePrescriptionReport() {
+        reportController.generatePrescriptionReport();
+    }
 }
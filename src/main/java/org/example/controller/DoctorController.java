@@ -11,10 +11,10 @@ import org.example.model.Doctor;
 import org.example.service.DoctorService;
 import org.example.service.HospitalService;
 import org.example.util.AlertUtils;
+import org.example.util.FxAsync;
 import org.example.view.DoctorFormView;
 import org.example.view.DoctorTableView;
 
-import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,66 +27,55 @@ public class DoctorController {
     private final DoctorFormView doctorFormView = new DoctorFormView();
     private final DoctorTableView doctorTableView = new DoctorTableView();
 
-    public void addDoctor() {
-        try {
-            List<Department> departments = hospitalService.getAllDepartments();
-            // Validation handles empty department selection
-            doctorFormView.showAddDoctorDialog(doctorService, departments);
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Error", "Failed to load departments: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
+    public void addDoctor(Runnable onSuccess) {
+        // Validation handles empty department selection
+        FxAsync.run(hospitalService::getAllDepartments,
+                departments -> doctorFormView.showAddDoctorDialog(doctorService, departments, onSuccess),
+                "Failed to load departments");
     }
 
     public void viewDoctors() {
-        try {
-            List<Doctor> doctors = doctorService.getAllDoctors();
-            List<Department> departments = hospitalService.getAllDepartments();
-            doctorTableView.show("All Doctors", doctors, departments);
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Database Error", "Failed to load doctors: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
+        FxAsync.runLatest("doctors.view", () -> new DoctorListing(doctorService.getAllDoctors(),
+                hospitalService.getAllDepartments()),
+                listing -> doctorTableView.show("All Doctors", listing.doctors, listing.departments),
+                "Failed to load doctors");
     }
 
-    public void updateDoctor() {
-        try {
-            TextInputDialog emailDialog = new TextInputDialog();
-            emailDialog.setTitle("Update Doctor");
-            emailDialog.setHeaderText("Enter Doctor email to update:");
-            emailDialog.setContentText("Doctor Email:");
+    public void updateDoctor(Runnable onSuccess) {
+        TextInputDialog emailDialog = new TextInputDialog();
+        emailDialog.setTitle("Update Doctor");
+        emailDialog.setHeaderText("Enter Doctor email to update:");
+        emailDialog.setContentText("Doctor Email:");
 
-            Optional<String> emailResult = emailDialog.showAndWait();
-            if (emailResult.isPresent() && !emailResult.get().isEmpty()) {
-                String doctorEmail = emailResult.get().trim();
+        Optional<String> emailResult = emailDialog.showAndWait();
+        if (emailResult.isPresent() && !emailResult.get().isEmpty()) {
+            String doctorEmail = emailResult.get().trim();
 
+            FxAsync.run(() -> {
                 Doctor doctor = doctorService.getDoctor(doctorEmail);
-                if (doctor == null) {
+                return doctor == null ? null : new DoctorListing(List.of(doctor), hospitalService.getAllDepartments());
+            }, listing -> {
+                if (listing == null) {
                     AlertUtils.showAlert("Not Found", "Doctor with email " + doctorEmail + " not found.",
                             Alert.AlertType.ERROR);
                     return;
                 }
-
-                List<Department> departments = hospitalService.getAllDepartments();
-                doctorFormView.showUpdateDoctorDialog(doctor, doctorService, departments, doctorEmail);
-            }
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Database Error", "Failed to update doctor: " + e.getMessage(), Alert.AlertType.ERROR);
-        } catch (Exception e) {
-            AlertUtils.showAlert("Input Error", "Please enter a valid email address: " + e.getMessage(),
-                    Alert.AlertType.ERROR);
+                doctorFormView.showUpdateDoctorDialog(listing.doctors.get(0), doctorService, listing.departments,
+                        doctorEmail, onSuccess);
+            }, "Failed to update doctor");
         }
     }
 
-    public void deleteDoctor() {
-        try {
-            TextInputDialog dialog = new TextInputDialog();
-            dialog.setTitle("Delete Doctor");
-            dialog.setHeaderText("Enter Doctor email to delete:");
-            dialog.setContentText("Doctor Email:");
-
-            Optional<String> emailResult = dialog.showAndWait();
-            if (emailResult.isPresent() && !emailResult.get().isEmpty()) {
-                String doctorEmail = emailResult.get().trim();
-                Doctor doctor = doctorService.getDoctor(doctorEmail);
+    public void deleteDoctor(Runnable onSuccess) {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Delete Doctor");
+        dialog.setHeaderText("Enter Doctor email to delete:");
+        dialog.setContentText("Doctor Email:");
+
+        Optional<String> emailResult = dialog.showAndWait();
+        if (emailResult.isPresent() && !emailResult.get().isEmpty()) {
+            String doctorEmail = emailResult.get().trim();
+            FxAsync.run(() -> doctorService.getDoctor(doctorEmail), doctor -> {
                 if (doctor == null) {
                     AlertUtils.showAlert("Not Found", "Doctor with email " + doctorEmail + " not found.",
                             Alert.AlertType.ERROR);
@@ -101,14 +90,13 @@ public class DoctorController {
 
                 Optional<ButtonType> result = confirmAlert.showAndWait();
                 if (result.isPresent() && result.get() == ButtonType.OK) {
-                    doctorService.deleteDoctor(doctor.getId());
-                    AlertUtils.showAlert("Success", "Doctor deleted successfully!", Alert.AlertType.INFORMATION);
+                    FxAsync.run(() -> doctorService.deleteDoctor(doctor.getId()), () -> {
+                        AlertUtils.showAlert("Success", "Doctor deleted successfully!", Alert.AlertType.INFORMATION);
+                        if (onSuccess != null)
+                            onSuccess.run();
+                    }, "Failed to delete doctor");
                 }
-            }
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Database Error", "Failed to delete doctor: " + e.getMessage(), Alert.AlertType.ERROR);
-        } catch (Exception e) {
-            AlertUtils.showAlert("Error", "Cannot delete doctor: " + e.getMessage(), Alert.AlertType.ERROR);
+            }, "Failed to delete doctor");
         }
     }
 
@@ -120,10 +108,11 @@ public class DoctorController {
 
         Optional<String> result = dialog.showAndWait();
         if (result.isPresent() && !result.get().isEmpty()) {
-            try {
+            String searchTerm = result.get();
+            FxAsync.runLatest("doctors.search", () -> {
                 DoctorDAO doctorDAO = new DoctorDAO();
-                List<Doctor> doctors = doctorDAO.searchDoctors(result.get());
-
+                return doctorDAO.searchDoctors(searchTerm);
+            }, doctors -> {
                 if (doctors.isEmpty()) {
                     AlertUtils.showAlert("No Results", "No doctors found.", Alert.AlertType.INFORMATION);
                     return;
@@ -132,10 +121,18 @@ public class DoctorController {
                 // Pass null for departments if not strictly needed for basic search view,
                 // or fetch them if expanding the view to show department names
                 doctorTableView.show("Search Results for Doctors", doctors, null);
+            }, "Search failed");
+        }
+    }
+
+    // Doctors and departments loaded together in one background call
+    private static class DoctorListing {
+        final List<Doctor> doctors;
+        final List<Department> departments;
 
-            } catch (Exception e) {
-                AlertUtils.showAlert("Error", "Search failed: " + e.getMessage(), Alert.AlertType.ERROR);
-            }
+        DoctorListing(List<Doctor> doctors, List<Department> departments) {
+            this.doctors = doctors;
+            this.departments = departments;
         }
     }
 }
@@ -17,7 +17,7 @@ public class DoctorPortalController {
 
     @FXML
     private void cancelAppointment() {
-        appointmentController.deleteAppointment();
+        appointmentController.deleteAppointment(null);
     } // Logic mapped
 
     @FXML
@@ -30,6 +30,11 @@ public class DoctorPortalController {
         patientController.searchPatients();
     }
 
+    @FXML
+    private void patientOverview() {
+        patientController.patientOverview();
+    }
+
     @FXML
     private void viewDoctorsForDoctor() {
         doctorController.viewDoctors();
@@ -37,7 +42,7 @@ public class DoctorPortalController {
 
     @FXML
     private void addPrescription() {
-        prescriptionController.addPrescription();
+        prescriptionController.addPrescription(null);
     }
 
     @FXML
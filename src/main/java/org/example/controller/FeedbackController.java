@@ -5,31 +5,23 @@ import javafx.scene.control.Alert;
 import org.example.service.HospitalService;
 import org.example.service.PatientService;
 import org.example.util.AlertUtils;
+import org.example.util.FxAsync;
 import org.example.view.FeedbackView;
 
-import java.sql.SQLException;
-
 public class FeedbackController {
     private final HospitalService hospitalService = new HospitalService();
     private final PatientService patientService = new PatientService();
     private final FeedbackView feedbackView = new FeedbackView();
 
     public void viewPatientFeedback() {
-        try {
-            feedbackView.show(hospitalService.getAllFeedback());
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-        }
+        FxAsync.runLatest("feedback.view", hospitalService::getAllFeedback, feedbackView::show,
+                "Failed to load feedback");
     }
 
     public void showFeedbackDialog() {
-        feedbackView.showFeedbackDialog(patientService).ifPresent(f -> {
-            try {
-                hospitalService.addFeedback(f);
-                AlertUtils.showAlert("Success", "Feedback Sent", Alert.AlertType.INFORMATION);
-            } catch (SQLException e) {
-                AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-            }
-        });
+        feedbackView.showFeedbackDialog(patientService).ifPresent(f -> FxAsync.run(
+                () -> hospitalService.addFeedback(f),
+                () -> AlertUtils.showAlert("Success", "Feedback Sent", Alert.AlertType.INFORMATION),
+                "Failed to send feedback"));
     }
 }
@@ -3,19 +3,17 @@ package org.example.controller;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.TextInputDialog;
-import org.example.dao.MedicalInventoryDAO;
-import org.example.model.MedicalInventory;
 import org.example.service.HospitalService;
+import org.example.service.InventoryService;
 import org.example.util.AlertUtils;
+import org.example.util.FxAsync;
 import org.example.view.InventoryFormView;
 import org.example.view.InventoryTableView;
 
-import java.sql.SQLException;
-import java.util.List;
 import java.util.Optional;
 
 public class InventoryController {
-    private final MedicalInventoryDAO inventoryDAO = new MedicalInventoryDAO();
+    private final InventoryService inventoryService = new InventoryService();
     private final HospitalService hospitalService = new HospitalService();
 
     // Views
@@ -23,57 +21,56 @@ public class InventoryController {
     private final InventoryTableView inventoryTableView = new InventoryTableView();
 
     public void viewInventory() {
-        try {
-            inventoryTableView.show(inventoryDAO.getAllInventory());
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-        }
+        FxAsync.runLatest("inventory.view", inventoryService::getAllInventory, inventoryTableView::show,
+                "Failed to load inventory");
     }
 
-    public void addInventoryItem() {
-        inventoryFormView.showAddInventoryDialog(inventoryDAO);
+    public void addInventoryItem(Runnable onSuccess) {
+        inventoryFormView.showAddInventoryDialog(inventoryService, onSuccess);
     }
 
-    public void updateInventoryItem() {
-        inventoryFormView.showUpdateStockDialog(inventoryDAO);
+    public void updateInventoryItem(Runnable onSuccess) {
+        inventoryFormView.showUpdateStockDialog(inventoryService, onSuccess);
     }
 
-    public void deleteInventoryItem() {
+    public void deleteInventoryItem(Runnable onSuccess) {
         TextInputDialog d = new TextInputDialog();
         d.setTitle("Delete Inventory Item");
         d.setHeaderText("Remove item from inventory");
         d.setContentText("Item ID:");
         d.showAndWait().ifPresent(id -> {
+            int itemId;
             try {
-                Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
-                confirm.setTitle("Confirm Deletion");
-                confirm.setHeaderText("Delete Item ID: " + id);
-                confirm.setContentText("Are you sure you want to remove this item from inventory?");
-
-                Optional<ButtonType> result = confirm.showAndWait();
-                if (result.isPresent() && result.get() == ButtonType.OK) {
-                    inventoryDAO.deleteInventoryItem(Integer.parseInt(id));
-                    AlertUtils.showAlert("Success", "Item removed from inventory", Alert.AlertType.INFORMATION);
-                }
+                itemId = Integer.parseInt(id.trim());
             } catch (NumberFormatException e) {
                 AlertUtils.showAlert("Error", "Invalid Item ID", Alert.AlertType.ERROR);
-            } catch (Exception e) {
-                AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
+                return;
+            }
+
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+            confirm.setTitle("Confirm Deletion");
+            confirm.setHeaderText("Delete Item ID: " + id);
+            confirm.setContentText("Are you sure you want to remove this item from inventory?");
+
+            Optional<ButtonType> result = confirm.showAndWait();
+            if (result.isPresent() && result.get() == ButtonType.OK) {
+                FxAsync.run(() -> inventoryService.deleteInventoryItem(itemId), () -> {
+                    AlertUtils.showAlert("Success", "Item removed from inventory", Alert.AlertType.INFORMATION);
+                    if (onSuccess != null)
+                        onSuccess.run();
+                }, "Failed to remove item");
             }
         });
     }
 
     public void checkLowStock() {
-        try {
-            List<MedicalInventory> low = hospitalService.getLowStockItems();
+        FxAsync.run(hospitalService::getLowStockItems, low -> {
             if (low.isEmpty()) {
                 AlertUtils.showAlert("Stock Status", "All medical supplies are adequately stocked",
                         Alert.AlertType.INFORMATION);
             } else {
                 inventoryFormView.showLowStockAlert(low);
             }
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-        }
+        }, "Failed to check stock");
     }
 }
@@ -2,15 +2,12 @@ package org.example.controller;
 
 import javafx.fxml.FXML;
 import org.example.util.DatabaseUpdater;
-import java.sql.SQLException;
+import org.example.util.FxAsync;
 
 public class MainController {
     @FXML
     public void initialize() {
-        try {
-            DatabaseUpdater.updateSchema();
-        } catch (SQLException e) {
-            System.err.println("DB Error: " + e.getMessage());
-        }
+        // Schema checks can take a while on a remote database; keep the window responsive
+        FxAsync.run(DatabaseUpdater::updateSchema, null, null);
     }
 }
\ No newline at end of file
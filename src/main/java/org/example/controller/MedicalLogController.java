@@ -6,6 +6,7 @@ import org.example.dao.MedicalLogDAO;
 import org.example.model.Patient;
 import org.example.service.PatientService;
 import org.example.util.AlertUtils;
+import org.example.util.FxAsync;
 import org.example.view.MedicalLogView;
 
 import java.util.Optional;
@@ -21,15 +22,9 @@ public class MedicalLogController {
         Optional<Patient> pResult = medicalLogView.searchPatientDialog(patientService);
 
         pResult.ifPresent(p -> {
-            medicalLogView.showLogDialog(p).ifPresent(log -> {
-                try {
-                    logDAO.addLog(log);
-                    AlertUtils.showAlert("Success", "Log saved to MongoDB!", Alert.AlertType.INFORMATION);
-                } catch (Exception e) {
-                    AlertUtils.showAlert("Connection Error", "Check mongodb+srv string\n" + e.getMessage(),
-                            Alert.AlertType.ERROR);
-                }
-            });
+            medicalLogView.showLogDialog(p).ifPresent(log -> FxAsync.run(() -> logDAO.addLog(log),
+                    () -> AlertUtils.showAlert("Success", "Log recorded!", Alert.AlertType.INFORMATION),
+                    "Check mongodb+srv string"));
         });
 
         // Note: View shows "Not Found" logic or simply returns empty if cancelled/not
@@ -40,12 +35,6 @@ public class MedicalLogController {
     }
 
     public void viewMedicalLogs() {
-        try {
-            medicalLogView.show(logDAO.getAllLogs(), patientService);
-        } catch (Exception e) {
-            e.printStackTrace();
-            AlertUtils.showAlert("Error", "Failed to load medical logs:\n" + e.getMessage(),
-                    Alert.AlertType.ERROR);
-        }
+        medicalLogView.showPaged(logDAO, patientService);
     }
 }
@@ -3,106 +3,135 @@ package org.example.controller;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.TextInputDialog;
+import javafx.stage.FileChooser;
 import org.example.dao.MedicalLogDAO;
+import org.example.model.Appointment;
+import org.example.model.MedicalLog;
 import org.example.model.Patient;
+import org.example.model.Prescription;
+import org.example.service.AsyncAppointmentService;
+import org.example.service.AsyncMedicalLogService;
+import org.example.service.AsyncPatientService;
+import org.example.service.AsyncPrescriptionService;
+import org.example.service.AsyncQueries;
 import org.example.service.PatientService;
 import org.example.service.PrescriptionService;
 import org.example.util.AlertUtils;
+import org.example.util.FxAsync;
 import org.example.view.MedicalHistoryView;
 import org.example.view.PatientFormView;
+import org.example.view.PatientOverviewView;
 import org.example.view.PatientTableView;
 
-import java.sql.SQLException;
+import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class PatientController {
+    private static final int OVERVIEW_ROWS = 10;
 
     private final PatientService patientService = new PatientService();
     private final PrescriptionService prescriptionService = new PrescriptionService();
-    private final MedicalLogDAO medicalLogDAO = new MedicalLogDAO();
+    private final AsyncMedicalLogService asyncLogService = new AsyncMedicalLogService(new MedicalLogDAO());
+    private final AsyncPrescriptionService asyncPrescriptionService = new AsyncPrescriptionService(prescriptionService);
+    private final AsyncPatientService asyncPatientService = new AsyncPatientService(patientService);
+    private final AsyncAppointmentService asyncAppointmentService = new AsyncAppointmentService();
 
     // View Components
     private final PatientFormView patientFormView = new PatientFormView();
     private final PatientTableView patientTableView = new PatientTableView();
     private final MedicalHistoryView medicalHistoryView = new MedicalHistoryView();
+    private final PatientOverviewView patientOverviewView = new PatientOverviewView();
 
     // The methods below are copied and adapted from MainController
 
-    public void addPatient() {
+    public void addPatient(Runnable onSuccess) {
         Optional<Patient> result = patientFormView.showAddPatientDialog(patientService);
-        result.ifPresent(patient -> {
-            try {
-                patientService.addPatient(patient);
-                AlertUtils.showAlert("Success", "Patient added successfully (ID: " + patient.getId() + ")",
-                        Alert.AlertType.INFORMATION);
-            } catch (SQLException e) {
-                AlertUtils.showAlert("Database Error", "Failed to add patient: " + e.getMessage(),
-                        Alert.AlertType.ERROR);
+        result.ifPresent(patient -> FxAsync.run(() -> patientService.addPatient(patient), () -> {
+            AlertUtils.showAlert("Success", "Patient added successfully (ID: " + patient.getId() + ")",
+                    Alert.AlertType.INFORMATION);
+            if (onSuccess != null)
+                onSuccess.run();
+        }, "Failed to add patient"));
+    }
+
+    /**
+     * Bulk-loads a CSV or JSON file of patients. Rows that fail validation
+     * or duplicate an email are listed in {@code <file>.rejected.csv} next to
+     * the source file.
+     */
+    public void importPatients(Runnable onSuccess) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Patients");
+        chooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Patient files (*.csv, *.json)", "*.csv", "*.json"));
+        File file = chooser.showOpenDialog(null);
+        if (file == null)
+            return;
+
+        Path source = file.toPath();
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        Path rejectReport = source.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".rejected.csv");
+        FxAsync.run(() -> patientService.importPatients(source, rejectReport), result -> {
+            StringBuilder message = new StringBuilder("Imported " + result.getImported() + " of "
+                    + result.getRead() + " patients in " + result.getElapsedMs() + " ms.");
+            if (result.getRejected() > 0) {
+                message.append("\n").append(result.getRejected()).append(" rows were rejected; see ")
+                        .append(result.getRejectReport().toAbsolutePath());
             }
-        });
+            AlertUtils.showAlert("Import Complete", message.toString(),
+                    result.getRejected() > 0 ? Alert.AlertType.WARNING : Alert.AlertType.INFORMATION);
+            if (onSuccess != null)
+                onSuccess.run();
+        }, "Failed to import patients");
     }
 
     public void viewPatients() {
-        try {
-            List<Patient> patients = patientService.getAllPatients();
-            patientTableView.show("All Patients", patients, this::showMedicalHistory);
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Database Error", "Failed to load patients: " + e.getMessage(), Alert.AlertType.ERROR);
-        }
+        patientTableView.showPaged("All Patients", patientService, this::showMedicalHistory);
     }
 
-    public void updatePatient() {
-        try {
-            TextInputDialog dialog = new TextInputDialog();
-            dialog.setTitle("Update Patient");
-            dialog.setHeaderText("Enter Patient email to update:");
-            dialog.setContentText("Patient Email:");
+    public void updatePatient(Runnable onSuccess) {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Update Patient");
+        dialog.setHeaderText("Enter Patient email to update:");
+        dialog.setContentText("Patient Email:");
 
-            Optional<String> emailResult = dialog.showAndWait();
-            if (emailResult.isPresent() && !emailResult.get().isEmpty()) {
-                String patientEmail = emailResult.get().trim();
+        Optional<String> emailResult = dialog.showAndWait();
+        if (emailResult.isPresent() && !emailResult.get().isEmpty()) {
+            String patientEmail = emailResult.get().trim();
 
-                Patient patient = patientService.getPatient(patientEmail);
+            FxAsync.run(() -> patientService.getPatient(patientEmail), patient -> {
                 if (patient == null) {
                     AlertUtils.showAlert("Not Found", "Patient with email " + patientEmail + " not found.",
                             Alert.AlertType.ERROR);
                     return;
                 }
-
-                patientFormView.showUpdatePatientDialog(patient, patientService, patientEmail, null);
-            }
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Database Error", "Failed to update patient: " + e.getMessage(),
-                    Alert.AlertType.ERROR);
-        } catch (Exception e) {
-            AlertUtils.showAlert("Input Error", "Please enter a valid email address: " + e.getMessage(),
-                    Alert.AlertType.ERROR);
+                patientFormView.showUpdatePatientDialog(patient, patientService, patientEmail, onSuccess);
+            }, "Failed to update patient");
         }
     }
 
-    public void deletePatient() {
-        try {
-            Optional<Integer> idResult = patientFormView.askForPatientId("Delete Patient");
-            if (idResult.isPresent()) {
-                int patientId = idResult.get();
-                Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
-                confirmAlert.setTitle("Confirm Deletion");
-                confirmAlert.setHeaderText("Delete Patient ID: " + patientId);
-                confirmAlert.setContentText("Are you sure you want to delete this patient?");
-
-                Optional<ButtonType> result = confirmAlert.showAndWait();
-                if (result.isPresent() && result.get() == ButtonType.OK) {
-                    patientService.deletePatient(patientId);
+    public void deletePatient(Runnable onSuccess) {
+        Optional<Integer> idResult = patientFormView.askForPatientId("Delete Patient");
+        if (idResult.isPresent()) {
+            int patientId = idResult.get();
+            Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
+            confirmAlert.setTitle("Confirm Deletion");
+            confirmAlert.setHeaderText("Delete Patient ID: " + patientId);
+            confirmAlert.setContentText("Are you sure you want to delete this patient?");
+
+            Optional<ButtonType> result = confirmAlert.showAndWait();
+            if (result.isPresent() && result.get() == ButtonType.OK) {
+                FxAsync.run(() -> patientService.deletePatient(patientId), () -> {
                     AlertUtils.showAlert("Success", "Patient deleted successfully", Alert.AlertType.INFORMATION);
-                }
+                    if (onSuccess != null)
+                        onSuccess.run();
+                }, "Failed to delete patient");
             }
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Database Error", "Failed to delete patient: " + e.getMessage(),
-                    Alert.AlertType.ERROR);
-        } catch (Exception e) {
-            AlertUtils.showAlert("Error", "Cannot delete patient: " + e.getMessage(), Alert.AlertType.ERROR);
         }
     }
 
@@ -114,7 +143,8 @@ public class PatientController {
         Optional<String> result = patientFormView.showSearchDialog();
         if (result.isPresent()) {
             String searchTerm = result.get();
-            try {
+            // A newer search supersedes one that is still running
+            FxAsync.runLatest("patients.search", () -> {
                 List<Patient> patients = new ArrayList<>();
 
                 // Helper in Service or here? Ideally Service handles "smart search",
@@ -131,20 +161,69 @@ public class PatientController {
                 } else {
                     patients = patientService.searchPatients(searchTerm);
                 }
-
+                return patients;
+            }, patients -> {
                 if (patients.isEmpty()) {
                     AlertUtils.showAlert("No Results", "No patients found matching: " + searchTerm,
                             Alert.AlertType.INFORMATION);
                     return;
                 }
                 patientTableView.show("Search Results", patients, this::showMedicalHistory);
-            } catch (SQLException e) {
-                AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-            }
+            }, "Search failed");
         }
     }
 
+    /**
+     * One page per patient for the doctor portal. The patient row, their
+     * appointments, latest prescriptions, latest logs and log count are all
+     * requested at once, so the page waits for the slowest query rather than
+     * the sum of them.
+     */
+    public void patientOverview() {
+        Optional<Integer> idResult = patientFormView.askForPatientId("Patient Overview");
+        if (idResult.isEmpty()) {
+            return;
+        }
+        int patientId = idResult.get();
+        FxAsync.run(() -> {
+            CompletableFuture<Patient> patient = asyncPatientService.getPatientById(patientId);
+            CompletableFuture<List<Appointment>> appointments =
+                    asyncAppointmentService.getAppointmentsByPatientId(patientId);
+            CompletableFuture<List<Prescription>> prescriptions =
+                    asyncPrescriptionService.getPrescriptionsByPatient(patientId, null, OVERVIEW_ROWS);
+            CompletableFuture<List<MedicalLog>> logs = asyncLogService.getLogsPage(patientId, null, null, OVERVIEW_ROWS);
+            CompletableFuture<Long> logCount = asyncLogService.countLogs(patientId, null);
+            return new PatientOverview(AsyncQueries.await(patient), AsyncQueries.await(appointments),
+                    AsyncQueries.await(prescriptions), AsyncQueries.await(logs), AsyncQueries.await(logCount));
+        }, overview -> {
+            if (overview.patient == null) {
+                AlertUtils.showAlert("Not Found", "No patient with ID " + patientId, Alert.AlertType.WARNING);
+                return;
+            }
+            patientOverviewView.show(overview.patient, overview.appointments, overview.prescriptions, overview.logs,
+                    overview.logCount);
+        }, "Failed to load patient overview");
+    }
+
     private void showMedicalHistory(Patient patient) {
-        medicalHistoryView.show(patient, medicalLogDAO, prescriptionService);
+        medicalHistoryView.show(patient, asyncLogService, asyncPrescriptionService);
+    }
+
+    // The overview queries, collected once all have finished
+    private static class PatientOverview {
+        final Patient patient;
+        final List<Appointment> appointments;
+        final List<Prescription> prescriptions;
+        final List<MedicalLog> logs;
+        final long logCount;
+
+        PatientOverview(Patient patient, List<Appointment> appointments, List<Prescription> prescriptions,
+                List<MedicalLog> logs, long logCount) {
+            this.patient = patient;
+            this.appointments = appointments;
+            this.prescriptions = prescriptions;
+            this.logs = logs;
+            this.logCount = logCount;
+        }
     }
 }
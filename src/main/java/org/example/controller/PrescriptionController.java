@@ -9,10 +9,12 @@ import org.example.service.DoctorService;
 import org.example.service.PatientService;
 import org.example.service.PrescriptionService;
 import org.example.util.AlertUtils;
+import org.example.util.FxAsync;
 import org.example.view.PrescriptionFormView;
+import org.example.view.PrescriptionFormView.PrescriptionWithItems;
 import org.example.view.PrescriptionTableView;
 
-import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -26,76 +28,98 @@ public class PrescriptionController {
     private final PrescriptionFormView prescriptionFormView = new PrescriptionFormView();
     private final PrescriptionTableView prescriptionTableView = new PrescriptionTableView();
 
-    @SuppressWarnings("unchecked")
-    public void addPrescription() {
-        Dialog<Map<String, Object>> dialog = prescriptionFormView.createPrescriptionDialog("Add New Prescription", null,
-                null, patientService, doctorService);
+    public void addPrescription(Runnable onSuccess) {
+        Dialog<PrescriptionWithItems> dialog = prescriptionFormView.createPrescriptionDialog("Add New Prescription",
+                null, null, patientService, doctorService);
         dialog.showAndWait().ifPresent(data -> {
-            try {
-                Prescription p = (Prescription) data.get("prescription");
-                List<PrescriptionItem> items = (List<PrescriptionItem>) data.get("items");
-                prescriptionService.addPrescription(p, items);
+            FxAsync.run(() -> prescriptionService.addPrescription(data.getPrescription(), data.getItems()), () -> {
                 AlertUtils.showAlert("Success", "Prescription added!", Alert.AlertType.INFORMATION);
-            } catch (SQLException e) {
-                AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-            }
+                if (onSuccess != null)
+                    onSuccess.run();
+            }, "Failed to add prescription");
         });
     }
 
-    @SuppressWarnings("unchecked")
-    public void updatePrescription() {
+    public void updatePrescription(Runnable onSuccess) {
+        TextInputDialog idDialog = new TextInputDialog();
+        idDialog.setTitle("Update Prescription");
+        idDialog.setContentText("Prescription ID:");
+        Optional<String> idResult = idDialog.showAndWait();
+        if (idResult.isEmpty())
+            return;
+
+        int pid;
         try {
-            TextInputDialog idDialog = new TextInputDialog();
-            idDialog.setTitle("Update Prescription");
-            idDialog.setContentText("Prescription ID:");
-            Optional<String> idResult = idDialog.showAndWait();
-            if (idResult.isEmpty())
-                return;
+            pid = Integer.parseInt(idResult.get().trim());
+        } catch (NumberFormatException e) {
+            AlertUtils.showAlert("Error", "Prescription ID must be a number", Alert.AlertType.ERROR);
+            return;
+        }
 
-            int pid = Integer.parseInt(idResult.get());
+        FxAsync.run(() -> {
             Prescription p = prescriptionService.getPrescription(pid);
             if (p == null) {
+                return null;
+            }
+            return new PrescriptionWithItems(p, prescriptionService.getPrescriptionItems(pid));
+        }, loaded -> {
+            if (loaded == null) {
                 AlertUtils.showAlert("Error", "Not found", Alert.AlertType.ERROR);
                 return;
             }
-            List<PrescriptionItem> items = prescriptionService.getPrescriptionItems(pid);
-
-            Dialog<Map<String, Object>> dialog = prescriptionFormView.createPrescriptionDialog("Update Prescription", p,
-                    items, patientService, doctorService);
-            dialog.showAndWait().ifPresent(data -> {
-                try {
-                    prescriptionService.updatePrescription((Prescription) data.get("prescription"),
-                            (List<PrescriptionItem>) data.get("items"));
-                    AlertUtils.showAlert("Success", "Updated!", Alert.AlertType.INFORMATION);
-                } catch (SQLException e) {
-                    AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-                }
-            });
 
-        } catch (Exception e) {
-            AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-        }
+            Dialog<PrescriptionWithItems> dialog = prescriptionFormView.createPrescriptionDialog(
+                    "Update Prescription", loaded.getPrescription(), loaded.getItems(), patientService,
+                    doctorService);
+            dialog.showAndWait().ifPresent(data -> FxAsync.run(
+                    () -> prescriptionService.updatePrescription(data.getPrescription(), data.getItems()),
+                    () -> {
+                        AlertUtils.showAlert("Success", "Updated!", Alert.AlertType.INFORMATION);
+                        if (onSuccess != null)
+                            onSuccess.run();
+                    }, "Failed to update prescription"));
+        }, "Failed to load prescription");
     }
 
     public void viewPrescriptions() {
-        try {
-            prescriptionTableView.show(prescriptionService.getAllPrescriptions(), prescriptionService);
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-        }
+        FxAsync.runLatest("prescriptions.view", () -> {
+            List<Prescription> prescriptions = prescriptionService.getAllPrescriptions();
+            List<Integer> ids = new ArrayList<>();
+            for (Prescription p : prescriptions) {
+                ids.add(p.getId());
+            }
+            return new PrescriptionListing(prescriptions, prescriptionService.getPrescriptionItems(ids));
+        }, listing -> prescriptionTableView.show(listing.prescriptions, listing.itemsById, prescriptionService),
+                "Failed to load prescriptions");
     }
 
-    public void deletePrescription() {
+    public void deletePrescription(Runnable onSuccess) {
         TextInputDialog d = new TextInputDialog();
         d.setTitle("Delete Prescription");
         d.setContentText("ID:");
         d.showAndWait().ifPresent(id -> {
+            int pid;
             try {
-                prescriptionService.deletePrescription(Integer.parseInt(id));
-                AlertUtils.showAlert("Success", "Deleted", Alert.AlertType.INFORMATION);
-            } catch (Exception e) {
-                AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
+                pid = Integer.parseInt(id.trim());
+            } catch (NumberFormatException e) {
+                AlertUtils.showAlert("Error", "Prescription ID must be a number", Alert.AlertType.ERROR);
+                return;
             }
+            FxAsync.run(() -> prescriptionService.deletePrescription(pid), () -> {
+                AlertUtils.showAlert("Success", "Deleted", Alert.AlertType.INFORMATION);
+                if (onSuccess != null)
+                    onSuccess.run();
+            }, "Failed to delete prescription");
         });
     }
+
+    private static class PrescriptionListing {
+        final List<Prescription> prescriptions;
+        final Map<Integer, List<PrescriptionItem>> itemsById;
+
+        PrescriptionListing(List<Prescription> prescriptions, Map<Integer, List<PrescriptionItem>> itemsById) {
+            this.prescriptions = prescriptions;
+            this.itemsById = itemsById;
+        }
+    }
 }
@@ -10,12 +10,12 @@ public class ReceptionistController {
 
     @FXML
     private void addPatient() {
-        patientController.addPatient();
+        patientController.addPatient(null);
     }
 
     @FXML
     private void scheduleAppointment() {
-        appointmentController.scheduleAppointment();
+        appointmentController.scheduleAppointment(null);
     }
 
     @FXML
@@ -1,58 +1,127 @@
 package org.example.controller;
 
 import javafx.collections.FXCollections;
-import javafx.scene.control.Alert;
+import org.example.dao.MedicalLogAnalytics;
 import org.example.model.Patient;
+import org.example.service.AsyncQueries;
+import org.example.service.CacheRegistry;
 import org.example.service.HospitalService;
 import org.example.service.PatientService;
-import org.example.util.AlertUtils;
+import org.example.service.PrescriptionService;
+import org.example.util.FxAsync;
 import org.example.view.ReportView;
+import org.example.view.ReportView.DateRange;
 
-import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class ReportController {
+    // The most severe level the log form offers
+    private static final String HIGH_SEVERITY = "Critical";
+    private static final int TOP_PATIENTS = 10;
+
     private final HospitalService hospitalService = new HospitalService();
     private final PatientService patientService = new PatientService();
+    private final PrescriptionService prescriptionService = new PrescriptionService();
+    private final MedicalLogAnalytics logAnalytics = new MedicalLogAnalytics();
     private final ReportView reportView = new ReportView();
 
     public void generatePerformanceReport() {
-        try {
-            Map<String, Object> stats = hospitalService.getSystemStatistics();
-            Map<String, Long> perf = hospitalService.getPerformanceMetrics();
-            reportView.showPerformanceReport(stats, perf);
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-        }
+        FxAsync.runLatest("report.performance", () -> new PerformanceReport(hospitalService.getSystemStatistics(),
+                hospitalService.getPerformanceMetrics(), hospitalService.getConnectionPoolStatistics(),
+                hospitalService.getMongoStatistics()),
+                report -> reportView.showPerformanceReport(report.stats, report.perf, report.pool, report.mongo),
+                "Failed to generate report");
+    }
+
+    public void generateMedicalLogReport() {
+        reportView.askDateRange("Medical Log Analytics", LocalDate.now().minusDays(29), LocalDate.now())
+                .ifPresent(range -> FxAsync.runLatest("report.medicalLogs", () -> {
+                    LocalDate from = range.getFrom();
+                    LocalDate to = range.getTo();
+                    // The three pipelines are independent, so they run side by side
+                    CompletableFuture<Map<LocalDate, Map<String, Long>>> bySeverity =
+                            AsyncQueries.mongo(() -> logAnalytics.countBySeverityPerDay(from, to));
+                    CompletableFuture<Map<Integer, Long>> topPatients = AsyncQueries.mongo(
+                            () -> logAnalytics.topPatientsBySeverity(HIGH_SEVERITY, from, to, TOP_PATIENTS));
+                    CompletableFuture<List<MedicalLogAnalytics.DailyTrend>> trend =
+                            AsyncQueries.mongo(() -> logAnalytics.dailyTrend(from, to));
+                    Map<Integer, Long> top = AsyncQueries.await(topPatients);
+                    return new MedicalLogReport(range, AsyncQueries.await(bySeverity), top,
+                            patientService.getPatientsByIds(top.keySet()), AsyncQueries.await(trend));
+                }, report -> reportView.showMedicalLogAnalytics(report.range.getFrom(), report.range.getTo(),
+                        HIGH_SEVERITY, report.bySeverity, report.topPatients, report.patients, report.trend),
+                        "Failed to generate medical log report"));
+    }
+
+    public void generatePrescriptionReport() {
+        FxAsync.runLatest("report.prescriptions", prescriptionService::getPrescriptionStats,
+                reportView::showPrescriptionStats, "Failed to generate prescription report");
     }
 
     public void showCacheStatistics() {
-        try {
-            Map<String, Long> m = hospitalService.getPerformanceMetrics();
-            reportView.showCacheStatistics(m);
-        } catch (SQLException e) {
-            AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-        }
+        FxAsync.runLatest("report.cache", CacheRegistry::getStatistics, reportView::showCacheStatistics,
+                "Failed to load cache statistics");
     }
 
     public void clearCache() {
-        // Mock impl
-        reportView.showCacheCleared();
+        FxAsync.run(CacheRegistry::clearAll, reportView::showCacheCleared, "Failed to clear caches");
     }
 
     public void showSortingDemo() {
-        try {
-            List<Patient> patients = patientService.getAllPatients();
-            // View handles "not enough patients" check/alert
-            List<Patient> sorted = hospitalService.searchAndSortPatients("", "name", true);
-            reportView.showSortingDemo(patients, sorted);
-        } catch (Exception e) {
-            AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-        }
+        FxAsync.runLatest("report.sorting", () -> new SortingDemo(patientService.getAllPatients(),
+                hospitalService.searchAndSortPatients("", "name", true)),
+                // View handles "not enough patients" check/alert
+                demo -> reportView.showSortingDemo(demo.patients, demo.sorted),
+                "Sorting demo failed");
     }
 
     public void showAbout() {
         reportView.showAbout();
     }
+
+    private static class PerformanceReport {
+        final Map<String, Object> stats;
+        final Map<String, Long> perf;
+        final Map<String, Object> pool;
+        final Map<String, Object> mongo;
+
+        PerformanceReport(Map<String, Object> stats, Map<String, Long> perf, Map<String, Object> pool,
+                Map<String, Object> mongo) {
+            this.stats = stats;
+            this.perf = perf;
+            this.pool = pool;
+            this.mongo = mongo;
+        }
+    }
+
+    private static class MedicalLogReport {
+        final DateRange range;
+        final Map<LocalDate, Map<String, Long>> bySeverity;
+        final Map<Integer, Long> topPatients;
+        final Map<Integer, Patient> patients;
+        final List<MedicalLogAnalytics.DailyTrend> trend;
+
+        MedicalLogReport(DateRange range, Map<LocalDate, Map<String, Long>> bySeverity,
+                Map<Integer, Long> topPatients, Map<Integer, Patient> patients,
+                List<MedicalLogAnalytics.DailyTrend> trend) {
+            this.range = range;
+            this.bySeverity = bySeverity;
+            this.topPatients = topPatients;
+            this.patients = patients;
+            this.trend = trend;
+        }
+    }
+
+    private static class SortingDemo {
+        final List<Patient> patients;
+        final List<Patient> sorted;
+
+        SortingDemo(List<Patient> patients, List<Patient> sorted) {
+            this.patients = patients;
+            this.sorted = sorted;
+        }
+    }
 }
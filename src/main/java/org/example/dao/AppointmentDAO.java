@@ -217,6 +217,51 @@ public class AppointmentDAO {
         return appointments;
     }
 
+    /**
+     * One doctor's appointments on one day, ordered by time. Served by
+     * idx_appointments_doctor_slot (doctor_id, appointment_date, appointment_time).
+     */
+    public List<Appointment> getAppointmentsByDoctorAndDate(int doctorId, LocalDate date) throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+        String sql = "SELECT a.*, p.first_name as p_first, p.last_name as p_last, d.first_name as d_first, d.last_name as d_last "
+                +
+                "FROM appointments a " +
+                "LEFT JOIN patients p ON a.patient_id = p.id " +
+                "LEFT JOIN doctors d ON a.doctor_id = d.id " +
+                "WHERE a.doctor_id = ? AND a.appointment_date = ? ORDER BY a.appointment_time";
+        long startTime = System.currentTimeMillis();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, doctorId);
+            stmt.setDate(2, Date.valueOf(date));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Appointment appt = new Appointment(
+                            rs.getInt("id"),
+                            rs.getInt("patient_id"),
+                            rs.getInt("doctor_id"),
+                            rs.getDate("appointment_date").toLocalDate(),
+                            rs.getTime("appointment_time").toLocalTime(),
+                            rs.getString("status"));
+                    String pFirst = rs.getString("p_first");
+                    String pLast = rs.getString("p_last");
+                    appt.setPatientName(pFirst != null && pLast != null ? pFirst + " " + pLast : "Unknown");
+                    String dFirst = rs.getString("d_first");
+                    String dLast = rs.getString("d_last");
+                    appt.setDoctorName(dFirst != null && dLast != null ? "Dr. " + dFirst + " " + dLast : "Unknown");
+                    appointments.add(appt);
+                }
+            }
+
+        } finally {
+            updatePerformanceStats(startTime);
+        }
+        return appointments;
+    }
+
     public int getAppointmentCountByStatus(String status) throws SQLException {
         String sql = "SELECT COUNT(*) as count FROM appointments WHERE status = ?";
         long startTime = System.currentTimeMillis();
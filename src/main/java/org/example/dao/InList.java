@@ -0,0 +1,49 @@
+package org.example.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Placeholders for {@code IN (...)} lookups, padded up to one of a few fixed
+ * sizes. The SQL text then has only that many forms, so each stays a single
+ * cached server-side statement instead of one per list length. Padding
+ * repeats the last value, which leaves the result unchanged.
+ */
+final class InList {
+    /** The largest list one query takes; callers chunk longer ones. */
+    static final int MAX_SIZE = 1000;
+    private static final int[] SIZES = { 1, 10, 100, MAX_SIZE };
+
+    private InList() {
+    }
+
+    /** "?, ?, ..." for {@code count} values rounded up to the next fixed size. */
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(paddedSize(count), "?"));
+    }
+
+    static void bindInts(PreparedStatement stmt, int firstIndex, List<Integer> values) throws SQLException {
+        int size = paddedSize(values.size());
+        for (int i = 0; i < size; i++) {
+            stmt.setInt(firstIndex + i, values.get(Math.min(i, values.size() - 1)));
+        }
+    }
+
+    static void bindStrings(PreparedStatement stmt, int firstIndex, List<String> values) throws SQLException {
+        int size = paddedSize(values.size());
+        for (int i = 0; i < size; i++) {
+            stmt.setString(firstIndex + i, values.get(Math.min(i, values.size() - 1)));
+        }
+    }
+
+    private static int paddedSize(int count) {
+        for (int size : SIZES) {
+            if (count <= size) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("IN list of " + count + " values exceeds " + MAX_SIZE);
+    }
+}
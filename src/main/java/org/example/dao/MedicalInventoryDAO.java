@@ -49,6 +49,26 @@ public class MedicalInventoryDAO {
         return inventory;
     }
 
+    public MedicalInventory getInventoryItem(int id) throws SQLException {
+        String sql = "SELECT * FROM medical_inventory WHERE id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new MedicalInventory(
+                            rs.getInt("id"),
+                            rs.getString("item_name"),
+                            rs.getInt("quantity"),
+                            rs.getString("unit"));
+                }
+            }
+        }
+        return null;
+    }
+
     public void updateInventoryQuantity(int itemId, int newQuantity) throws SQLException {
         String sql = "UPDATE medical_inventory SET quantity = ? WHERE id = ?";
 
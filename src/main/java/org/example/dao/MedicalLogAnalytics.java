@@ -0,0 +1,160 @@
+package org.example.dao;
+
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reports over medical logs computed by MongoDB aggregation pipelines, so
+ * only the aggregated rows come back to the application.
+ *
+ * Every report covers the days {@code from} to {@code to}, both inclusive,
+ * in the system time zone. The range is matched on {@code timestamp} first,
+ * so the pipelines start from the timestamp indexes. Logs kept in the
+ * bucketed layout are pulled in with {@code $unionWith}, so both layouts are
+ * counted.
+ */
+public class MedicalLogAnalytics {
+    private static final int TREND_WINDOW_DAYS = 30;
+
+    /** Log counts per day and severity; days without logs are left out. */
+    public Map<LocalDate, Map<String, Long>> countBySeverityPerDay(LocalDate from, LocalDate to) {
+        Map<LocalDate, Map<String, Long>> counts = new TreeMap<>();
+        List<Bson> pipeline = logsBetween(from, to, null);
+        pipeline.add(new Document("$group", new Document("_id", new Document("day", day())
+                .append("severity", "$severity"))
+                .append("count", new Document("$sum", 1))));
+        for (Document row : aggregate(pipeline)) {
+            Document id = row.get("_id", Document.class);
+            counts.computeIfAbsent(toLocalDate(id.getDate("day")), d -> new TreeMap<>())
+                    .put(String.valueOf(id.getString("severity")), count(row));
+        }
+        return counts;
+    }
+
+    /** Patients with the most logs of {@code severity}, highest first, as patient id to count. */
+    public Map<Integer, Long> topPatientsBySeverity(String severity, LocalDate from, LocalDate to, int limit) {
+        Map<Integer, Long> top = new LinkedHashMap<>();
+        List<Bson> pipeline = logsBetween(from, to, severity);
+        pipeline.add(new Document("$group", new Document("_id", "$patient_id")
+                .append("count", new Document("$sum", 1))));
+        pipeline.add(new Document("$sort", new Document("count", -1).append("_id", 1)));
+        pipeline.add(new Document("$limit", limit));
+        for (Document row : aggregate(pipeline)) {
+            top.put(row.getInteger("_id"), count(row));
+        }
+        return top;
+    }
+
+    /**
+     * Daily totals with the rolling 7- and 30-day sums ending on each day.
+     * The 29 days before {@code from} are read too, so the first day's
+     * 30-day sum is complete.
+     */
+    public List<DailyTrend> dailyTrend(LocalDate from, LocalDate to) {
+        List<Bson> pipeline = logsBetween(from.minusDays(TREND_WINDOW_DAYS - 1), to, null);
+        pipeline.add(new Document("$group", new Document("_id", day())
+                .append("count", new Document("$sum", 1))));
+        pipeline.add(new Document("$setWindowFields", new Document("sortBy", new Document("_id", 1))
+                .append("output", new Document("last7Days", rollingSum(7))
+                        .append("last30Days", rollingSum(TREND_WINDOW_DAYS)))));
+        pipeline.add(new Document("$sort", new Document("_id", 1)));
+
+        List<DailyTrend> trend = new ArrayList<>();
+        for (Document row : aggregate(pipeline)) {
+            LocalDate day = toLocalDate(row.getDate("_id"));
+            if (!day.isBefore(from)) {
+                trend.add(new DailyTrend(day, count(row), row.get("last7Days", Number.class).longValue(),
+                        row.get("last30Days", Number.class).longValue()));
+            }
+        }
+        return trend;
+    }
+
+    /**
+     * Stages yielding {patient_id, severity, timestamp} for every log in the
+     * range from both layouts. Buckets are preselected by their start hour and
+     * severity counter before their events are unwound.
+     */
+    private static List<Bson> logsBetween(LocalDate from, LocalDate to, String severity) {
+        Date start = Date.from(from.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date end = Date.from(to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Document inRange = new Document("timestamp", new Document("$gte", start).append("$lt", end));
+        if (severity != null) {
+            inRange.append("severity", severity);
+        }
+
+        Document bucketMatch = new Document("start", new Document("$gte",
+                Date.from(start.toInstant().truncatedTo(ChronoUnit.HOURS))).append("$lt", end));
+        if (severity != null) {
+            bucketMatch.append("counts." + severity, new Document("$gt", 0));
+        }
+        List<Document> bucketEvents = List.of(
+                new Document("$match", bucketMatch),
+                new Document("$unwind", "$events"),
+                new Document("$replaceWith", new Document("patient_id", "$patient_id")
+                        .append("severity", "$events.severity")
+                        .append("timestamp", "$events.timestamp")),
+                new Document("$match", inRange));
+
+        List<Bson> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", inRange));
+        pipeline.add(new Document("$project", new Document("_id", 0).append("patient_id", 1)
+                .append("severity", 1).append("timestamp", 1)));
+        pipeline.add(new Document("$unionWith", new Document("coll", MedicalLogBuckets.COLLECTION)
+                .append("pipeline", bucketEvents)));
+        return pipeline;
+    }
+
+    private static Document day() {
+        return new Document("$dateTrunc", new Document("date", "$timestamp").append("unit", "day")
+                .append("timezone", ZoneId.systemDefault().getId()));
+    }
+
+    private static Document rollingSum(int days) {
+        return new Document("$sum", "$count").append("window", new Document("range", List.of(-(days - 1), 0))
+                .append("unit", "day"));
+    }
+
+    private static Iterable<Document> aggregate(List<Bson> pipeline) {
+        MongoCollection<Document> col = MedicalLogDAO.getCollection();
+        return col != null ? col.aggregate(pipeline) : List.of();
+    }
+
+    private static long count(Document row) {
+        return row.get("count", Number.class).longValue();
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    public static final class DailyTrend {
+        private final LocalDate day;
+        private final long count;
+        private final long last7Days;
+        private final long last30Days;
+
+        DailyTrend(LocalDate day, long count, long last7Days, long last30Days) {
+            this.day = day;
+            this.count = count;
+            this.last7Days = last7Days;
+            this.last30Days = last30Days;
+        }
+
+        public LocalDate getDay() { return day; }
+        public long getCount() { return count; }
+        public long getLast7Days() { return last7Days; }
+        public long getLast30Days() { return last30Days; }
+    }
+}
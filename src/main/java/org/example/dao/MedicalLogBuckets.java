@@ -0,0 +1,162 @@
+package org.example.dao;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.example.model.MedicalLog;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Bucketed layout for medical logs: one document per patient per hour holding
+ * up to {@code bucketSize} events, so high-frequency logging creates a
+ * fraction of the documents and index entries.
+ *
+ * <pre>
+ * { patient_id, start: &lt;hour&gt;, count, counts: { &lt;severity&gt;: n },
+ *   events: [ { _id, log_content, severity, timestamp } ] }
+ * </pre>
+ *
+ * Events are added with a {@code $push} upsert that only matches a bucket
+ * with room left, so a full hour spills into a further bucket for the same
+ * hour. {@code count} and {@code counts} are kept up to date by the same
+ * update, which lets totals be read without touching the events. Unlike the
+ * one-document-per-log layout, a log replayed after a failed write may be
+ * stored twice.
+ */
+class MedicalLogBuckets {
+    static final String COLLECTION = "medical_log_buckets";
+    static final List<Document> INDEXES = List.of(
+            new Document("start", -1),
+            new Document("patient_id", 1).append("start", -1));
+
+    private static final long BUCKET_MILLIS = ChronoUnit.HOURS.getDuration().toMillis();
+    private static final Bson NEWEST_FIRST = Sorts.descending("start");
+    static final Comparator<MedicalLog> NEWEST_LOG_FIRST = Comparator
+            .comparing(MedicalLog::getTimestamp).thenComparing(MedicalLog::getId).reversed();
+
+    private final int bucketSize;
+
+    MedicalLogBuckets(int bucketSize) {
+        if (bucketSize < 1) {
+            throw new IllegalArgumentException("Bucket size must be positive, got " + bucketSize);
+        }
+        this.bucketSize = bucketSize;
+    }
+
+    /** The upsert that appends one log document (as built by MedicalLog.toDocument) to its bucket. */
+    WriteModel<Document> toWrite(Document log) {
+        Date timestamp = log.getDate("timestamp");
+        Date start = Date.from(timestamp.toInstant().truncatedTo(ChronoUnit.HOURS));
+        String severity = log.getString("severity");
+        Document event = new Document("_id", log.getObjectId("_id"))
+                .append("log_content", log.getString("log_content"))
+                .append("severity", severity)
+                .append("timestamp", timestamp);
+
+        Bson filter = Filters.and(
+                Filters.eq("patient_id", log.getInteger("patient_id")),
+                Filters.eq("start", start),
+                Filters.lt("count", bucketSize));
+        Bson update = Updates.combine(
+                Updates.push("events", event),
+                Updates.inc("count", 1),
+                Updates.inc("counts." + (severity != null ? severity : "Unknown"), 1));
+        return new UpdateOneModel<>(filter, update, new UpdateOptions().upsert(true));
+    }
+
+    List<MedicalLog> getLogsByPatientId(MongoCollection<Document> buckets, int patientId) {
+        List<MedicalLog> logs = new ArrayList<>();
+        for (Document bucket : buckets.find(Filters.eq("patient_id", patientId)).sort(NEWEST_FIRST)) {
+            addEvents(bucket, null, null, logs);
+        }
+        logs.sort(NEWEST_LOG_FIRST);
+        return logs;
+    }
+
+    List<MedicalLog> getAllLogs(MongoCollection<Document> buckets) {
+        List<MedicalLog> logs = new ArrayList<>();
+        for (Document bucket : buckets.find()) {
+            addEvents(bucket, null, null, logs);
+        }
+        return logs;
+    }
+
+    /**
+     * Same contract as MedicalLogDAO.getLogsPage. Buckets are read newest hour
+     * first and reading stops once {@code limit} logs are collected and the
+     * next bucket's hour ends before the oldest of them.
+     */
+    List<MedicalLog> getLogsPage(MongoCollection<Document> buckets, Integer patientId, String severity,
+            MedicalLog after, int limit) {
+        List<Bson> filters = new ArrayList<>();
+        if (patientId != null) {
+            filters.add(Filters.eq("patient_id", patientId));
+        }
+        if (severity != null) {
+            // Skips buckets without a single log of this severity
+            filters.add(Filters.gt("counts." + severity, 0));
+        }
+        if (after != null) {
+            filters.add(Filters.lte("start", Date.from(MedicalLogDAO.toInstant(after.getTimestamp()))));
+        }
+        Bson filter = filters.isEmpty() ? new Document() : Filters.and(filters);
+
+        List<MedicalLog> logs = new ArrayList<>();
+        int batch = Math.max(2, limit / bucketSize + 1);
+        for (Document bucket : buckets.find(filter).sort(NEWEST_FIRST).batchSize(batch)) {
+            if (logs.size() >= limit) {
+                logs.sort(NEWEST_LOG_FIRST);
+                Instant oldest = MedicalLogDAO.toInstant(logs.get(limit - 1).getTimestamp());
+                if (bucket.getDate("start").getTime() + BUCKET_MILLIS <= oldest.toEpochMilli()) {
+                    break;
+                }
+            }
+            addEvents(bucket, severity, after, logs);
+        }
+        logs.sort(NEWEST_LOG_FIRST);
+        return logs.size() > limit ? new ArrayList<>(logs.subList(0, limit)) : logs;
+    }
+
+    /** Total events from the precomputed bucket counters; no events are read. */
+    long countLogs(MongoCollection<Document> buckets, Integer patientId, String severity) {
+        Bson filter = patientId != null ? Filters.eq("patient_id", patientId) : new Document();
+        String counter = severity != null ? "$counts." + severity : "$count";
+        Document total = buckets.aggregate(List.of(
+                Aggregates.match(filter),
+                Aggregates.group(null, Accumulators.sum("total", counter)))).first();
+        return total != null ? total.get("total", Number.class).longValue() : 0;
+    }
+
+    private static void addEvents(Document bucket, String severity, MedicalLog after, List<MedicalLog> out) {
+        Integer patientId = bucket.getInteger("patient_id");
+        Instant afterTime = after != null ? MedicalLogDAO.toInstant(after.getTimestamp()) : null;
+        ObjectId afterId = after != null ? new ObjectId(after.getId()) : null;
+        for (Document event : bucket.getList("events", Document.class, List.of())) {
+            if (severity != null && !severity.equals(event.getString("severity"))) {
+                continue;
+            }
+            if (after != null) {
+                int byTime = event.getDate("timestamp").toInstant().compareTo(afterTime);
+                if (byTime > 0 || (byTime == 0 && event.getObjectId("_id").compareTo(afterId) >= 0)) {
+                    continue;
+                }
+            }
+            out.add(MedicalLog.fromDocument(new Document(event).append("patient_id", patientId)));
+        }
+    }
+}
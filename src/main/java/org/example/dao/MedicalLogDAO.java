@@ -3,44 +3,189 @@ package org.example.dao;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 import org.example.model.MedicalLog;
+import org.example.util.EnvLoader;
 import org.example.util.MongoDBConnection;
 
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class MedicalLogDAO {
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
 
-    private MongoCollection<Document> getCollection() {
+    // Newest first, with _id breaking ties so keyset paging never skips or repeats a log
+    private static final Bson NEWEST_FIRST = Sorts.orderBy(Sorts.descending("timestamp"), Sorts.descending("_id"));
+    private static final Bson LIST_FIELDS = Projections.include("patient_id", "log_content", "severity", "timestamp");
+    // One per filter the list views use, each ending in the NEWEST_FIRST sort keys
+    private static final List<Document> INDEXES = List.of(
+            new Document("timestamp", -1).append("_id", -1),
+            new Document("patient_id", 1).append("timestamp", -1).append("_id", -1),
+            new Document("severity", 1).append("timestamp", -1).append("_id", -1));
+    // "documents" stores one document per log; "buckets" packs them per patient per hour
+    private static final boolean BUCKETED = "buckets".equalsIgnoreCase(
+            EnvLoader.get("MEDICAL_LOG_STORAGE", "documents"));
+    private static final MedicalLogBuckets buckets = new MedicalLogBuckets(
+            EnvLoader.getInt("MEDICAL_LOG_BUCKET_SIZE", 200));
+    private static final MedicalLogWriter writer = new MedicalLogWriter(
+            BUCKETED ? MedicalLogDAO::getBucketCollection : MedicalLogDAO::getCollection,
+            BUCKETED ? buckets::toWrite : InsertOneModel::new,
+            EnvLoader.getInt("MEDICAL_LOG_QUEUE_CAPACITY", 10_000),
+            EnvLoader.getInt("MEDICAL_LOG_BATCH_SIZE", 500),
+            EnvLoader.getLong("MEDICAL_LOG_FLUSH_INTERVAL_MS", 1_000),
+            EnvLoader.getLong("MEDICAL_LOG_ENQUEUE_TIMEOUT_MS", 2_000),
+            EnvLoader.getLong("MEDICAL_LOG_RETRY_MS", 30_000),
+            Paths.get(EnvLoader.get("MEDICAL_LOG_SPILL_FILE", "medical_logs.spill.jsonl")));
+
+    static MongoCollection<Document> getCollection() {
+        return getCollection("medical_logs");
+    }
+
+    private static MongoCollection<Document> getBucketCollection() {
+        return getCollection(MedicalLogBuckets.COLLECTION);
+    }
+
+    private static MongoCollection<Document> getCollection(String name) {
         try {
             MongoDatabase db = MongoDBConnection.getDatabase();
-            return db.getCollection("medical_logs");
+            return db.getCollection(name);
         } catch (Exception e) {
             e.printStackTrace();
             return null; // Handle gracefully in service/controller
         }
     }
 
+    static Instant toInstant(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * Queues the log for the background writer and returns straight away; it
+     * reaches MongoDB with the next batch, or the spill file if Mongo is down.
+     */
     public void addLog(MedicalLog log) {
+        Document doc = log.toDocument();
+        writer.submit(doc);
+        log.setId(doc.getObjectId("_id").toString());
+    }
+
+    public static Map<String, Object> getWriterStatistics() {
+        return writer.getStatistics();
+    }
+
+    /** Writes out queued logs before the application exits. */
+    public static void shutdown() {
+        writer.close(SHUTDOWN_TIMEOUT_MS);
+    }
+
+    /**
+     * Creates the compound indexes the paged queries rely on, for both
+     * layouts, and checks that they exist afterwards. Safe to call repeatedly;
+     * createIndex is a no-op for an index that is already there.
+     */
+    public static void ensureIndexes() {
+        ensureIndexes(getCollection(), INDEXES);
+        ensureIndexes(getBucketCollection(), MedicalLogBuckets.INDEXES);
+    }
+
+    private static void ensureIndexes(MongoCollection<Document> col, List<Document> indexes) {
+        if (col == null) {
+            return;
+        }
+        String name = col.getNamespace().getCollectionName();
+        try {
+            for (Document keys : indexes) {
+                col.createIndex(keys);
+            }
+            Set<Document> present = new HashSet<>();
+            for (Document index : col.listIndexes()) {
+                present.add(index.get("key", Document.class));
+            }
+            for (Document keys : indexes) {
+                if (!present.contains(keys)) {
+                    System.err.println("Warning: " + name + " index " + keys.toJson() + " is missing");
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to create " + name + " indexes: " + e.getMessage());
+        }
+    }
+
+    public List<MedicalLog> getLogsByPatientId(int patientId) {
+        List<MedicalLog> logs = new ArrayList<>();
         MongoCollection<Document> col = getCollection();
         if (col != null) {
-            col.insertOne(log.toDocument());
+            for (Document doc : col.find(Filters.eq("patient_id", patientId)).sort(NEWEST_FIRST)) {
+                logs.add(MedicalLog.fromDocument(doc));
+            }
         }
+        MongoCollection<Document> bucketCol = getBucketCollection();
+        if (bucketCol != null) {
+            return merge(logs, buckets.getLogsByPatientId(bucketCol, patientId), Integer.MAX_VALUE);
+        }
+        return logs;
     }
 
-    public List<MedicalLog> getLogsByPatientId(int patientId) {
+    /**
+     * One page of logs, newest first, optionally narrowed to a patient and/or
+     * severity. Pass the last log of the previous page as {@code after} (null
+     * for the first page); paging continues from its timestamp and id, so deep
+     * pages cost the same as the first. Only the fields list views show are
+     * fetched. Both storage layouts are read and merged.
+     */
+    public List<MedicalLog> getLogsPage(Integer patientId, String severity, MedicalLog after, int limit) {
         List<MedicalLog> logs = new ArrayList<>();
         MongoCollection<Document> col = getCollection();
         if (col != null) {
-            for (Document doc : col.find(Filters.eq("patient_id", patientId))) {
+            List<Bson> filters = new ArrayList<>(matching(patientId, severity));
+            if (after != null) {
+                Date timestamp = Date.from(toInstant(after.getTimestamp()));
+                filters.add(Filters.or(
+                        Filters.lt("timestamp", timestamp),
+                        Filters.and(Filters.eq("timestamp", timestamp), Filters.lt("_id", new ObjectId(after.getId())))));
+            }
+            Bson filter = filters.isEmpty() ? new Document() : Filters.and(filters);
+            for (Document doc : col.find(filter).projection(LIST_FIELDS).sort(NEWEST_FIRST).limit(limit)) {
                 logs.add(MedicalLog.fromDocument(doc));
             }
         }
+        MongoCollection<Document> bucketCol = getBucketCollection();
+        if (bucketCol != null) {
+            return merge(logs, buckets.getLogsPage(bucketCol, patientId, severity, after, limit), limit);
+        }
         return logs;
     }
 
+    /** Number of matching logs without fetching them; both arguments are optional. */
+    public long countLogs(Integer patientId, String severity) {
+        long total = 0;
+        MongoCollection<Document> col = getCollection();
+        if (col != null) {
+            List<Bson> filters = matching(patientId, severity);
+            // Collection metadata instead of a scan when nothing is filtered
+            total += filters.isEmpty() ? col.estimatedDocumentCount() : col.countDocuments(Filters.and(filters));
+        }
+        MongoCollection<Document> bucketCol = getBucketCollection();
+        if (bucketCol != null) {
+            total += buckets.countLogs(bucketCol, patientId, severity);
+        }
+        return total;
+    }
+
+    /** Loads the whole collection; use {@link #getLogsPage} for anything user-facing. */
     public List<MedicalLog> getAllLogs() {
         List<MedicalLog> logs = new ArrayList<>();
         MongoCollection<Document> col = getCollection();
@@ -49,6 +194,39 @@ public class MedicalLogDAO {
                 logs.add(MedicalLog.fromDocument(doc));
             }
         }
+        MongoCollection<Document> bucketCol = getBucketCollection();
+        if (bucketCol != null) {
+            logs.addAll(buckets.getAllLogs(bucketCol));
+        }
         return logs;
     }
+
+    // Both inputs are newest first
+    private static List<MedicalLog> merge(List<MedicalLog> a, List<MedicalLog> b, int limit) {
+        if (b.isEmpty()) {
+            return a;
+        }
+        List<MedicalLog> merged = new ArrayList<>(Math.min(limit, a.size() + b.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < a.size() || j < b.size())) {
+            if (j >= b.size() || (i < a.size() && MedicalLogBuckets.NEWEST_LOG_FIRST.compare(a.get(i), b.get(j)) <= 0)) {
+                merged.add(a.get(i++));
+            } else {
+                merged.add(b.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    private static List<Bson> matching(Integer patientId, String severity) {
+        List<Bson> filters = new ArrayList<>();
+        if (patientId != null) {
+            filters.add(Filters.eq("patient_id", patientId));
+        }
+        if (severity != null) {
+            filters.add(Filters.eq("severity", severity));
+        }
+        return filters;
+    }
 }
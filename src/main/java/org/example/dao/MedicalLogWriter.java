@@ -0,0 +1,341 @@
+package org.example.dao;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Writes medical log documents to MongoDB in the background.
+ *
+ * {@link #submit} puts the document on a bounded queue and returns. A single
+ * writer thread drains the queue with unordered bulk writes once
+ * {@code batchSize} documents are waiting or {@code flushIntervalMs} has
+ * passed. {@code toWrite} turns each queued document into its write: a plain
+ * insert, or an upsert into a time bucket. When the queue is full, submitters wait up to
+ * {@code enqueueTimeoutMs} and then append the document to the spill file.
+ *
+ * If Mongo cannot be reached, whole batches go to the spill file (one
+ * extended-JSON document per line) and writes are retried after
+ * {@code retryDelayMs}. After the next successful write the spill file is
+ * replayed. Documents keep the {@code _id} they were given on the first
+ * attempt, so a replayed document that did reach Mongo is skipped as a
+ * duplicate instead of stored twice. Documents Mongo itself refuses are
+ * moved to a separate {@code .rejected} file rather than retried.
+ */
+public class MedicalLogWriter {
+    private static final int DUPLICATE_KEY = 11000;
+    private static final JsonWriterSettings SPILL_JSON = JsonWriterSettings.builder()
+            .outputMode(JsonMode.EXTENDED).build();
+
+    private final Supplier<MongoCollection<Document>> collection;
+    private final Function<Document, WriteModel<Document>> toWrite;
+    private final BlockingQueue<Document> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long enqueueTimeoutMs;
+    private final long retryDelayMs;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path rejectedFile;
+    private final Object spillLock = new Object();
+    private final Thread worker;
+
+    private volatile boolean running = true;
+    // Only touched by the worker thread
+    private long retryAt = 0;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+
+    public MedicalLogWriter(Supplier<MongoCollection<Document>> collection,
+            Function<Document, WriteModel<Document>> toWrite, int queueCapacity, int batchSize,
+            long flushIntervalMs, long enqueueTimeoutMs, long retryDelayMs, Path spillFile) {
+        if (queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException(
+                    "Queue capacity and batch size must be positive, got " + queueCapacity + " and " + batchSize);
+        }
+        this.collection = collection;
+        this.toWrite = toWrite;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.retryDelayMs = retryDelayMs;
+        this.spillFile = spillFile;
+        this.replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        this.rejectedFile = spillFile.resolveSibling(spillFile.getFileName() + ".rejected");
+
+        worker = new Thread(this::runWorker, "medical-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Queues a document for writing. Blocks only while the queue is full, for
+     * at most {@code enqueueTimeoutMs}; after that the document is spilled to
+     * disk so it is never dropped.
+     */
+    public void submit(Document doc) {
+        // Fixed up front so a retried or replayed write can be recognised as a duplicate
+        if (!doc.containsKey("_id")) {
+            doc.put("_id", new ObjectId());
+        }
+        submitted.increment();
+        if (running && queue.offer(doc)) {
+            return;
+        }
+        backpressureWaits.increment();
+        try {
+            if (running && queue.offer(doc, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        spill(List.of(doc));
+    }
+
+    /**
+     * Stops accepting documents and writes what is still queued, giving up
+     * after {@code timeoutMs}. Whatever is left at that point is spilled.
+     */
+    public void close(long timeoutMs) {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Document> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        spill(rest);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("submitted", submitted.sum());
+        stats.put("written", written.sum());
+        stats.put("spilled", spilled.sum());
+        stats.put("replayed", replayed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("backpressureWaits", backpressureWaits.sum());
+        return stats;
+    }
+
+    private void runWorker() {
+        // Logs spilled by an earlier run
+        replaySpill();
+        List<Document> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Document first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    long deadline = System.currentTimeMillis() + flushIntervalMs;
+                    while (batch.size() < batchSize) {
+                        long wait = deadline - System.currentTimeMillis();
+                        Document next = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // close(): write what is queued without waiting for more
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                if (write(batch)) {
+                    replaySpill();
+                }
+                batch.clear();
+            } else if (running && System.currentTimeMillis() >= retryAt && Files.exists(spillFile)) {
+                replaySpill();
+            }
+        }
+    }
+
+    /** Writes the batch or spills it; true when Mongo accepted it. */
+    private boolean write(List<Document> batch) {
+        if (System.currentTimeMillis() < retryAt) {
+            spill(batch);
+            return false;
+        }
+        List<Document> failed = insert(batch);
+        if (failed == null) {
+            retryAt = System.currentTimeMillis() + retryDelayMs;
+            spill(batch);
+            return false;
+        }
+        retryAt = 0;
+        written.add(batch.size() - failed.size());
+        keepRejected(failed);
+        return true;
+    }
+
+    /**
+     * Writes unordered and returns the documents Mongo rejected (duplicates
+     * count as written), or null when Mongo could not be reached at all.
+     */
+    private List<Document> insert(List<Document> docs) {
+        MongoCollection<Document> col = collection.get();
+        if (col == null) {
+            return null;
+        }
+        try {
+            List<WriteModel<Document>> writes = new ArrayList<>(docs.size());
+            for (Document doc : docs) {
+                writes.add(toWrite.apply(doc));
+            }
+            col.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            return List.of();
+        } catch (MongoBulkWriteException e) {
+            Set<Integer> refused = new HashSet<>();
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    refused.add(error.getIndex());
+                }
+            }
+            if (e.getWriteConcernError() != null && refused.isEmpty()) {
+                return null;
+            }
+            List<Document> failed = new ArrayList<>();
+            for (int index : refused) {
+                failed.add(docs.get(index));
+            }
+            if (!failed.isEmpty()) {
+                System.err.println("MongoDB rejected " + failed.size() + " medical logs, keeping them in "
+                        + rejectedFile + ": " + e.getMessage());
+            }
+            return failed;
+        } catch (RuntimeException e) {
+            System.err.println("MongoDB unavailable, spilling medical logs to " + spillFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void spill(List<Document> docs) {
+        if (append(spillFile, docs)) {
+            spilled.add(docs.size());
+        }
+    }
+
+    // Retrying these would fail the same way, so they are set aside for manual repair
+    private void keepRejected(List<Document> docs) {
+        if (append(rejectedFile, docs)) {
+            rejected.add(docs.size());
+        }
+    }
+
+    private boolean append(Path file, List<Document> docs) {
+        if (docs.isEmpty()) {
+            return false;
+        }
+        synchronized (spillLock) {
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Document doc : docs) {
+                    out.write(doc.toJson(SPILL_JSON));
+                    out.newLine();
+                }
+                return true;
+            } catch (IOException e) {
+                System.err.println("Failed to write " + docs.size() + " medical logs to " + file + ": "
+                        + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Moves the spill file aside and writes it back in batches. Lines that
+     * still cannot be written are appended to the spill file again.
+     */
+    private void replaySpill() {
+        synchronized (spillLock) {
+            try {
+                if (!Files.exists(replayFile)) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to replay " + spillFile + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        try (BufferedReader in = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            List<Document> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(Document.parse(line));
+                if (batch.size() >= batchSize) {
+                    replayBatch(batch);
+                    batch.clear();
+                }
+            }
+            replayBatch(batch);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to replay " + replayFile + ": " + e.getMessage());
+            return;
+        }
+        try {
+            Files.deleteIfExists(replayFile);
+        } catch (IOException e) {
+            System.err.println("Failed to delete " + replayFile + ": " + e.getMessage());
+        }
+    }
+
+    private void replayBatch(List<Document> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Document> failed = System.currentTimeMillis() < retryAt ? null : insert(batch);
+        if (failed == null) {
+            retryAt = System.currentTimeMillis() + retryDelayMs;
+            spill(batch);
+            return;
+        }
+        replayed.add(batch.size() - failed.size());
+        keepRejected(failed);
+    }
+}
@@ -4,9 +4,22 @@ import org.example.model.Patient;
 import org.example.util.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 public class PatientDAO {
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int ID_LOOKUP_CHUNK_SIZE = InList.MAX_SIZE;
+    // InnoDB default innodb_ft_min_token_size
+    private static final int FULLTEXT_MIN_TOKEN_SIZE = 3;
+    private static final int FULLTEXT_RESULT_LIMIT = 200;
+
     private long totalQueryTime = 0;
     private int queryCount = 0;
 
@@ -39,6 +52,92 @@ public class PatientDAO {
         }
     }
 
+    /**
+     * Inserts the patients in one transaction using a JDBC batch (sent as
+     * multi-row INSERTs because the pool enables rewriteBatchedStatements) and
+     * copies the generated ids back onto them, in order. Nothing is written if
+     * any row fails.
+     */
+    public void addPatientsBatch(List<Patient> patients) throws SQLException {
+        if (patients.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO patients (first_name, last_name, date_of_birth, address, phone, email) VALUES (?, ?, ?, ?, ?, ?)";
+        long startTime = System.currentTimeMillis();
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Patient patient : patients) {
+                    stmt.setString(1, patient.getFirstName());
+                    stmt.setString(2, patient.getLastName());
+                    if (patient.getDateOfBirth() != null) {
+                        stmt.setDate(3, Date.valueOf(patient.getDateOfBirth()));
+                    } else {
+                        stmt.setNull(3, Types.DATE);
+                    }
+                    stmt.setString(4, patient.getAddress());
+                    stmt.setString(5, patient.getPhone());
+                    stmt.setString(6, patient.getEmail());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    int i = 0;
+                    while (generatedKeys.next() && i < patients.size()) {
+                        patients.get(i++).setId(generatedKeys.getInt(1));
+                    }
+                    if (i != patients.size()) {
+                        throw new SQLException("Expected " + patients.size() + " generated keys, got " + i);
+                    }
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            if (conn != null)
+                conn.rollback();
+            throw e;
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+            updatePerformanceStats(startTime);
+        }
+    }
+
+    /** Which of the given emails already belong to a patient. */
+    public Set<String> findExistingEmails(Collection<String> emails) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        List<String> all = new ArrayList<>(emails);
+        if (all.isEmpty()) {
+            return existing;
+        }
+        long startTime = System.currentTimeMillis();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int from = 0; from < all.size(); from += InList.MAX_SIZE) {
+                List<String> chunk = all.subList(from, Math.min(from + InList.MAX_SIZE, all.size()));
+                String sql = "SELECT email FROM patients WHERE email IN (" + InList.placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InList.bindStrings(stmt, 1, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            existing.add(rs.getString("email").toLowerCase());
+                        }
+                    }
+                }
+            }
+
+        } finally {
+            updatePerformanceStats(startTime);
+        }
+        return existing;
+    }
+
     public Patient getPatient(String email) throws SQLException {
         String sql = "SELECT * FROM patients WHERE email = ?";
         long startTime = System.currentTimeMillis();
@@ -93,24 +192,71 @@ public class PatientDAO {
         return null;
     }
 
+    /**
+     * Patients by id, in one {@code WHERE id IN (...)} query per
+     * ID_LOOKUP_CHUNK_SIZE ids. Ids without a patient are left out.
+     */
+    public Map<Integer, Patient> getPatientsByIds(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Patient> patients = new LinkedHashMap<>();
+        List<Integer> distinct = new ArrayList<>(new HashSet<>(ids));
+        if (distinct.isEmpty()) {
+            return patients;
+        }
+        long startTime = System.currentTimeMillis();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int from = 0; from < distinct.size(); from += ID_LOOKUP_CHUNK_SIZE) {
+                List<Integer> chunk = distinct.subList(from, Math.min(from + ID_LOOKUP_CHUNK_SIZE, distinct.size()));
+                String sql = "SELECT * FROM patients WHERE id IN (" + InList.placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InList.bindInts(stmt, 1, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Patient patient = mapPatient(rs);
+                            patients.put(patient.getId(), patient);
+                        }
+                    }
+                }
+            }
+
+        } finally {
+            updatePerformanceStats(startTime);
+        }
+        return patients;
+    }
+
     public List<Patient> getAllPatients() throws SQLException {
         List<Patient> patients = new ArrayList<>();
-        String sql = "SELECT * FROM patients";
+        try (PatientCursor cursor = streamPatients(STREAM_FETCH_SIZE)) {
+            cursor.forEachRemaining(patients::add);
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
+        }
+        return patients;
+    }
+
+    /**
+     * Keyset page: up to {@code limit} patients with an id greater than
+     * {@code afterId}, in id order. Pass 0 for the first page and the last id
+     * seen for the next one.
+     */
+    public List<Patient> getPatientsPage(int afterId, int limit) throws SQLException {
+        List<Patient> patients = new ArrayList<>();
+        String sql = "SELECT * FROM patients WHERE id > ? ORDER BY id LIMIT ?";
         long startTime = System.currentTimeMillis();
 
         try (Connection conn = DatabaseConnection.getConnection();
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery(sql)) {
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                patients.add(new Patient(
-                        rs.getInt("id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getDate("date_of_birth").toLocalDate(),
-                        rs.getString("address"),
-                        rs.getString("phone"),
-                        rs.getString("email")));
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    patients.add(mapPatient(rs));
+                }
             }
 
         } finally {
@@ -119,6 +265,28 @@ public class PatientDAO {
         return patients;
     }
 
+    /**
+     * Streams every patient in id order without loading the table into memory.
+     * Rows are fetched from the server {@code fetchSize} at a time; the cursor
+     * holds a pooled connection until it is closed.
+     */
+    public PatientCursor streamPatients(int fetchSize) throws SQLException {
+        String sql = "SELECT * FROM patients ORDER BY id";
+        Connection conn = DatabaseConnection.getConnection();
+        PreparedStatement stmt = null;
+        try {
+            stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(fetchSize);
+            return new PatientCursor(conn, stmt, stmt.executeQuery());
+        } catch (SQLException e) {
+            if (stmt != null) {
+                stmt.close();
+            }
+            conn.close();
+            throw e;
+        }
+    }
+
     public void updatePatient(Patient patient, String originalEmail) throws SQLException {
         String sql = "UPDATE patients SET first_name = ?, last_name = ?, date_of_birth = ?, address = ?, phone = ?, email = ? WHERE email = ?";
         long startTime = System.currentTimeMillis();
@@ -212,6 +380,82 @@ public class PatientDAO {
         return patients;
     }
 
+    /**
+     * FULLTEXT search over names, email and phone (index ft_patients_search).
+     * Every word must match, as a prefix. Words shorter than InnoDB's minimum
+     * token size are not in the FULLTEXT index, so they are matched with a
+     * prefix LIKE on the names instead.
+     *
+     * A word is split where InnoDB splits the indexed text, so "555-1234"
+     * needs both 555 and 1234 and "ann@mail.com" needs ann, mail and com.
+     * Short pieces of such a word are dropped; they are not indexed and are
+     * not name prefixes either.
+     */
+    public List<Patient> searchPatientsFullText(String term) throws SQLException {
+        StringBuilder against = new StringBuilder();
+        List<String> shortWords = new ArrayList<>();
+        for (String word : term.trim().split("\\s+")) {
+            // Only letters, digits and '_' survive, so user input can't add boolean-mode operators
+            List<String> pieces = new ArrayList<>();
+            for (String piece : word.split("[^\\p{L}\\p{N}_]+")) {
+                if (!piece.isEmpty()) {
+                    pieces.add(piece);
+                }
+            }
+            for (String piece : pieces) {
+                if (piece.length() >= FULLTEXT_MIN_TOKEN_SIZE) {
+                    against.append('+').append(piece).append("* ");
+                } else if (pieces.size() == 1) {
+                    shortWords.add(piece);
+                }
+            }
+        }
+
+        List<Patient> patients = new ArrayList<>();
+        if (against.length() == 0 && shortWords.isEmpty()) {
+            return patients;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM patients WHERE 1 = 1");
+        if (against.length() > 0) {
+            sql.append(" AND MATCH(first_name, last_name, email, phone) AGAINST (? IN BOOLEAN MODE)");
+        }
+        for (int i = 0; i < shortWords.size(); i++) {
+            sql.append(" AND (first_name LIKE ? OR last_name LIKE ?)");
+        }
+        if (against.length() > 0) {
+            sql.append(" ORDER BY MATCH(first_name, last_name, email, phone) AGAINST (? IN BOOLEAN MODE) DESC");
+        }
+        sql.append(" LIMIT ").append(FULLTEXT_RESULT_LIMIT);
+        long startTime = System.currentTimeMillis();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int idx = 1;
+            if (against.length() > 0) {
+                stmt.setString(idx++, against.toString().trim());
+            }
+            for (String word : shortWords) {
+                stmt.setString(idx++, word + "%");
+                stmt.setString(idx++, word + "%");
+            }
+            if (against.length() > 0) {
+                stmt.setString(idx, against.toString().trim());
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    patients.add(mapPatient(rs));
+                }
+            }
+
+        } finally {
+            updatePerformanceStats(startTime);
+        }
+        return patients;
+    }
+
     public int getTotalPatientCount() throws SQLException {
         String sql = "SELECT COUNT(*) as count FROM patients";
         long startTime = System.currentTimeMillis();
@@ -230,6 +474,17 @@ public class PatientDAO {
         return 0;
     }
 
+    private static Patient mapPatient(ResultSet rs) throws SQLException {
+        return new Patient(
+                rs.getInt("id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getDate("date_of_birth").toLocalDate(),
+                rs.getString("address"),
+                rs.getString("phone"),
+                rs.getString("email"));
+    }
+
     private void updatePerformanceStats(long startTime) {
         long endTime = System.currentTimeMillis();
         totalQueryTime += (endTime - startTime);
@@ -244,4 +499,69 @@ public class PatientDAO {
         totalQueryTime = 0;
         queryCount = 0;
     }
-}
\ No newline at end of file
+
+    public class PatientCursor implements Iterator<Patient>, AutoCloseable {
+        private final Connection conn;
+        private final PreparedStatement stmt;
+        private final ResultSet rs;
+        private final long startTime = System.currentTimeMillis();
+        private Patient next;
+        private boolean closed = false;
+
+        private PatientCursor(Connection conn, PreparedStatement stmt, ResultSet rs) {
+            this.conn = conn;
+            this.stmt = stmt;
+            this.rs = rs;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (closed) {
+                return false;
+            }
+            try {
+                if (rs.next()) {
+                    next = mapPatient(rs);
+                    return true;
+                }
+                close();
+                return false;
+            } catch (SQLException e) {
+                close();
+                throw new IllegalStateException("Failed to read patient row: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public Patient next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Patient current = next;
+            next = null;
+            return current;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                rs.close();
+                stmt.close();
+            } catch (SQLException ignored) {
+            } finally {
+                try {
+                    conn.close();
+                } catch (SQLException ignored) {
+                }
+                updatePerformanceStats(startTime);
+            }
+        }
+    }
+}
@@ -5,10 +5,18 @@ import org.example.model.PrescriptionItem;
 import org.example.util.DatabaseConnection;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 public class PrescriptionDAO {
+    // Keeps IN lists well below max_allowed_packet and the planner's range limits
+    private static final int ITEM_LOOKUP_CHUNK_SIZE = InList.MAX_SIZE;
 
     // Add prescription with items in a transaction
     public void addPrescriptionWithItems(Prescription prescription, List<PrescriptionItem> items) throws SQLException {
@@ -33,16 +41,7 @@ public class PrescriptionDAO {
                             int prescriptionId = generatedKeys.getInt(1);
                             prescription.setId(prescriptionId);
 
-                            String itemSQL = "INSERT INTO prescription_items (prescription_id, medication, dosage) VALUES (?, ?, ?)";
-                            try (PreparedStatement itemStmt = conn.prepareStatement(itemSQL)) {
-                                for (PrescriptionItem item : items) {
-                                    itemStmt.setInt(1, prescriptionId);
-                                    itemStmt.setString(2, item.getMedication());
-                                    itemStmt.setString(3, item.getDosage());
-                                    itemStmt.addBatch();
-                                }
-                                itemStmt.executeBatch();
-                            }
+                            insertItems(conn, prescriptionId, items);
                             conn.commit();
                         }
                     }
@@ -79,24 +78,7 @@ public class PrescriptionDAO {
                 prescriptionStmt.executeUpdate();
             }
 
-            // Delete old items
-            String deleteItemsSQL = "DELETE FROM prescription_items WHERE prescription_id = ?";
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteItemsSQL)) {
-                deleteStmt.setInt(1, prescription.getId());
-                deleteStmt.executeUpdate();
-            }
-
-            // Insert new items
-            String itemSQL = "INSERT INTO prescription_items (prescription_id, medication, dosage) VALUES (?, ?, ?)";
-            try (PreparedStatement itemStmt = conn.prepareStatement(itemSQL)) {
-                for (PrescriptionItem item : items) {
-                    itemStmt.setInt(1, prescription.getId());
-                    itemStmt.setString(2, item.getMedication());
-                    itemStmt.setString(3, item.getDosage());
-                    itemStmt.addBatch();
-                }
-                itemStmt.executeBatch();
-            }
+            syncItems(conn, prescription.getId(), items);
 
             conn.commit();
         } catch (SQLException e) {
@@ -111,6 +93,123 @@ public class PrescriptionDAO {
         }
     }
 
+    /**
+     * Brings the stored items of a prescription in line with {@code items},
+     * touching only rows that changed. Items are matched to stored rows by id,
+     * then by identical medication and dosage, then by position; matched rows
+     * are updated if they differ, unmatched stored rows deleted and the rest
+     * inserted. Each kind of write goes out as one batch.
+     */
+    private void syncItems(Connection conn, int prescriptionId, List<PrescriptionItem> items) throws SQLException {
+        Map<Integer, PrescriptionItem> stored = new LinkedHashMap<>();
+        String selectSQL = "SELECT id, medication, dosage FROM prescription_items WHERE prescription_id = ? ORDER BY id FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(selectSQL)) {
+            stmt.setInt(1, prescriptionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt("id");
+                    stored.put(id, new PrescriptionItem(id, prescriptionId, rs.getString("medication"),
+                            rs.getString("dosage")));
+                }
+            }
+        }
+
+        List<PrescriptionItem> toUpdate = new ArrayList<>();
+        List<PrescriptionItem> unmatched = new ArrayList<>();
+        for (PrescriptionItem item : items) {
+            item.setPrescriptionId(prescriptionId);
+            PrescriptionItem old = item.getId() > 0 ? stored.remove(item.getId()) : null;
+            if (old != null) {
+                if (!sameContent(old, item)) {
+                    toUpdate.add(item);
+                }
+            } else {
+                item.setId(0);
+                unmatched.add(item);
+            }
+        }
+        // Unchanged items that came back without their id
+        for (Iterator<PrescriptionItem> it = unmatched.iterator(); it.hasNext();) {
+            PrescriptionItem item = it.next();
+            for (Iterator<PrescriptionItem> old = stored.values().iterator(); old.hasNext();) {
+                PrescriptionItem candidate = old.next();
+                if (sameContent(candidate, item)) {
+                    item.setId(candidate.getId());
+                    old.remove();
+                    it.remove();
+                    break;
+                }
+            }
+        }
+
+        List<PrescriptionItem> toInsert = new ArrayList<>();
+        Iterator<PrescriptionItem> leftover = stored.values().iterator();
+        for (PrescriptionItem item : unmatched) {
+            if (leftover.hasNext()) {
+                item.setId(leftover.next().getId());
+                leftover.remove();
+                toUpdate.add(item);
+            } else {
+                toInsert.add(item);
+            }
+        }
+
+        if (!stored.isEmpty()) {
+            String deleteSQL = "DELETE FROM prescription_items WHERE id = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(deleteSQL)) {
+                for (int id : stored.keySet()) {
+                    stmt.setInt(1, id);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+        if (!toUpdate.isEmpty()) {
+            String updateSQL = "UPDATE prescription_items SET medication = ?, dosage = ? WHERE id = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(updateSQL)) {
+                for (PrescriptionItem item : toUpdate) {
+                    stmt.setString(1, item.getMedication());
+                    stmt.setString(2, item.getDosage());
+                    stmt.setInt(3, item.getId());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+        insertItems(conn, prescriptionId, toInsert);
+    }
+
+    // Sent as one multi-row INSERT (the pool enables rewriteBatchedStatements); generated ids are set on the items
+    private void insertItems(Connection conn, int prescriptionId, List<PrescriptionItem> items) throws SQLException {
+        if (items.isEmpty()) {
+            return;
+        }
+        String itemSQL = "INSERT INTO prescription_items (prescription_id, medication, dosage) VALUES (?, ?, ?)";
+        try (PreparedStatement itemStmt = conn.prepareStatement(itemSQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (PrescriptionItem item : items) {
+                itemStmt.setInt(1, prescriptionId);
+                itemStmt.setString(2, item.getMedication());
+                itemStmt.setString(3, item.getDosage());
+                itemStmt.addBatch();
+            }
+            itemStmt.executeBatch();
+
+            try (ResultSet generatedKeys = itemStmt.getGeneratedKeys()) {
+                for (PrescriptionItem item : items) {
+                    if (!generatedKeys.next()) {
+                        break;
+                    }
+                    item.setPrescriptionId(prescriptionId);
+                    item.setId(generatedKeys.getInt(1));
+                }
+            }
+        }
+    }
+
+    private static boolean sameContent(PrescriptionItem a, PrescriptionItem b) {
+        return Objects.equals(a.getMedication(), b.getMedication()) && Objects.equals(a.getDosage(), b.getDosage());
+    }
+
     public void addPrescription(Prescription prescription) throws SQLException {
         String sql = "INSERT INTO prescriptions (patient_id, doctor_id, prescription_date, diagnosis, notes) VALUES (?, ?, ?, ?, ?)";
 
@@ -244,6 +343,168 @@ public class PrescriptionDAO {
         return prescriptions;
     }
 
+    /**
+     * Keyset page of a patient's prescriptions, newest first: up to
+     * {@code limit} that sort after {@code after} by (date, id) descending.
+     * Pass null for the first page and the last prescription seen for the next.
+     */
+    public List<Prescription> getPrescriptionsByPatientPage(int patientId, Prescription after, int limit)
+            throws SQLException {
+        return searchPrescriptions(new PrescriptionFilter().setPatientId(patientId), after, limit);
+    }
+
+    /**
+     * Prescriptions matching {@code filter}, newest first, with patient and
+     * doctor names. Keyset paged like getPrescriptionsByPatientPage, so a
+     * later page costs the same as the first.
+     */
+    public List<Prescription> searchPrescriptions(PrescriptionFilter filter, Prescription after, int limit)
+            throws SQLException {
+        List<Prescription> prescriptions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = whereClause(filter, params);
+        if (after != null) {
+            where.append(where.length() == 0 ? " WHERE " : " AND ")
+                    .append("(p.prescription_date < ? OR (p.prescription_date = ? AND p.id < ?))");
+            params.add(Date.valueOf(after.getPrescriptionDate()));
+            params.add(Date.valueOf(after.getPrescriptionDate()));
+            params.add(after.getId());
+        }
+        params.add(limit);
+        String sql = "SELECT p.*, " +
+                "pat.first_name as patient_first_name, pat.last_name as patient_last_name, " +
+                "doc.first_name as doctor_first_name, doc.last_name as doctor_last_name " +
+                "FROM prescriptions p " +
+                "LEFT JOIN patients pat ON p.patient_id = pat.id " +
+                "LEFT JOIN doctors doc ON p.doctor_id = doc.id" +
+                where + " ORDER BY p.prescription_date DESC, p.id DESC LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = prepare(conn, sql, params);
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                Prescription prescription = new Prescription(
+                        rs.getInt("id"),
+                        rs.getInt("patient_id"),
+                        rs.getInt("doctor_id"),
+                        rs.getDate("prescription_date").toLocalDate());
+                String diagnosis = rs.getString("diagnosis");
+                prescription.setDiagnosis(diagnosis != null ? diagnosis : "");
+                String notes = rs.getString("notes");
+                prescription.setNotes(notes != null ? notes : "");
+                prescription
+                        .setPatientName(rs.getString("patient_first_name") + " " + rs.getString("patient_last_name"));
+                prescription.setDoctorName(
+                        "Dr. " + rs.getString("doctor_first_name") + " " + rs.getString("doctor_last_name"));
+                prescriptions.add(prescription);
+            }
+        }
+        return prescriptions;
+    }
+
+    public int countPrescriptions(PrescriptionFilter filter) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) AS count FROM prescriptions p" + whereClause(filter, params);
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = prepare(conn, sql, params);
+                ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt("count") : 0;
+        }
+    }
+
+    /** Matching prescriptions per calendar month, oldest month first; months without any are left out. */
+    public Map<YearMonth, Integer> countPrescriptionsByMonth(PrescriptionFilter filter) throws SQLException {
+        Map<YearMonth, Integer> counts = new LinkedHashMap<>();
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT YEAR(p.prescription_date) AS y, MONTH(p.prescription_date) AS m, COUNT(*) AS count " +
+                "FROM prescriptions p" + whereClause(filter, params) +
+                " GROUP BY y, m ORDER BY y, m";
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = prepare(conn, sql, params);
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                counts.put(YearMonth.of(rs.getInt("y"), rs.getInt("m")), rs.getInt("count"));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * The {@code limit} medications on the most matching prescriptions, as
+     * medication to prescription count, most prescribed first.
+     */
+    public Map<String, Integer> countPrescriptionsByMedication(PrescriptionFilter filter, int limit)
+            throws SQLException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT i.medication, COUNT(DISTINCT p.id) AS count " +
+                "FROM prescriptions p JOIN prescription_items i ON i.prescription_id = p.id" +
+                whereClause(filter, params) +
+                " GROUP BY i.medication ORDER BY count DESC, i.medication LIMIT ?";
+        params.add(limit);
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = prepare(conn, sql, params);
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                counts.put(rs.getString("medication"), rs.getInt("count"));
+            }
+        }
+        return counts;
+    }
+
+    // Conditions on prescriptions aliased p; values are appended to params in placeholder order
+    private static StringBuilder whereClause(PrescriptionFilter filter, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.getFromDate() != null) {
+            conditions.add("p.prescription_date >= ?");
+            params.add(Date.valueOf(filter.getFromDate()));
+        }
+        if (filter.getToDate() != null) {
+            conditions.add("p.prescription_date <= ?");
+            params.add(Date.valueOf(filter.getToDate()));
+        }
+        if (filter.getDoctorId() != null) {
+            conditions.add("p.doctor_id = ?");
+            params.add(filter.getDoctorId());
+        }
+        if (filter.getPatientId() != null) {
+            conditions.add("p.patient_id = ?");
+            params.add(filter.getPatientId());
+        }
+        if (filter.getDiagnosis() != null && !filter.getDiagnosis().isBlank()) {
+            conditions.add("p.diagnosis LIKE ?");
+            params.add("%" + escapeLike(filter.getDiagnosis().trim()) + "%");
+        }
+        if (filter.getMedication() != null && !filter.getMedication().isBlank()) {
+            // Prefix match, so idx_prescription_items_medication can serve it
+            conditions.add("EXISTS (SELECT 1 FROM prescription_items mi " +
+                    "WHERE mi.prescription_id = p.id AND mi.medication LIKE ?)");
+            params.add(escapeLike(filter.getMedication().trim()) + "%");
+        }
+        StringBuilder where = new StringBuilder();
+        if (!conditions.isEmpty()) {
+            where.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        return where;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static PreparedStatement prepare(Connection conn, String sql, List<Object> params) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql);
+        try {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+        return stmt;
+    }
+
     public List<Prescription> getPrescriptionsByDoctor(int doctorId) throws SQLException {
         List<Prescription> prescriptions = new ArrayList<>();
         String sql = "SELECT p.*, pat.first_name as patient_first_name, pat.last_name as patient_last_name " +
@@ -345,6 +606,45 @@ public class PrescriptionDAO {
         return items;
     }
 
+    /**
+     * Items of several prescriptions at once, grouped by prescription id.
+     * Ids are sent in chunks of ITEM_LOOKUP_CHUNK_SIZE, so a typical listing
+     * costs one query. Prescriptions without items map to an empty list.
+     */
+    public Map<Integer, List<PrescriptionItem>> getPrescriptionItems(Collection<Integer> prescriptionIds)
+            throws SQLException {
+        Map<Integer, List<PrescriptionItem>> itemsById = new LinkedHashMap<>();
+        for (int id : prescriptionIds) {
+            itemsById.put(id, new ArrayList<>());
+        }
+        if (itemsById.isEmpty()) {
+            return itemsById;
+        }
+
+        List<Integer> ids = new ArrayList<>(itemsById.keySet());
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int from = 0; from < ids.size(); from += ITEM_LOOKUP_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + ITEM_LOOKUP_CHUNK_SIZE, ids.size()));
+                String sql = "SELECT * FROM prescription_items WHERE prescription_id IN ("
+                        + InList.placeholders(chunk.size()) + ") ORDER BY prescription_id, id";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InList.bindInts(stmt, 1, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            PrescriptionItem item = new PrescriptionItem(
+                                    rs.getInt("id"),
+                                    rs.getInt("prescription_id"),
+                                    rs.getString("medication"),
+                                    rs.getString("dosage"));
+                            itemsById.get(item.getPrescriptionId()).add(item);
+                        }
+                    }
+                }
+            }
+        }
+        return itemsById;
+    }
+
     public void deletePrescription(int id) throws SQLException {
         String sql = "DELETE FROM prescriptions WHERE id = ?";
 
@@ -0,0 +1,36 @@
+package org.example.dao;
+
+import java.time.LocalDate;
+
+/**
+ * Criteria for {@link PrescriptionDAO#searchPrescriptions} and the
+ * prescription aggregates. Every field is optional; unset fields do not
+ * filter. Dates are inclusive, diagnosis matches anywhere in the text and
+ * medication matches the start of any item's medication name.
+ */
+public class PrescriptionFilter {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Integer doctorId;
+    private Integer patientId;
+    private String diagnosis;
+    private String medication;
+
+    public LocalDate getFromDate() { return fromDate; }
+    public PrescriptionFilter setFromDate(LocalDate fromDate) { this.fromDate = fromDate; return this; }
+
+    public LocalDate getToDate() { return toDate; }
+    public PrescriptionFilter setToDate(LocalDate toDate) { this.toDate = toDate; return this; }
+
+    public Integer getDoctorId() { return doctorId; }
+    public PrescriptionFilter setDoctorId(Integer doctorId) { this.doctorId = doctorId; return this; }
+
+    public Integer getPatientId() { return patientId; }
+    public PrescriptionFilter setPatientId(Integer patientId) { this.patientId = patientId; return this; }
+
+    public String getDiagnosis() { return diagnosis; }
+    public PrescriptionFilter setDiagnosis(String diagnosis) { this.diagnosis = diagnosis; return this; }
+
+    public String getMedication() { return medication; }
+    public PrescriptionFilter setMedication(String medication) { this.medication = medication; return this; }
+}
@@ -0,0 +1,91 @@
+package org.example.dao;
+
+import org.example.util.DatabaseConnection;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+public class StatisticsDAO {
+    private long totalQueryTime = 0;
+    private int queryCount = 0;
+
+    /**
+     * All dashboard counters in one round trip. Each value is a COUNT(*)
+     * subquery, so no table rows are transferred.
+     */
+    public Map<String, Object> getDashboardCounts(int lowStockThreshold) throws SQLException {
+        String sql = "SELECT "
+                + "(SELECT COUNT(*) FROM patients) AS total_patients, "
+                + "(SELECT COUNT(*) FROM doctors) AS total_doctors, "
+                + "(SELECT COUNT(*) FROM appointments) AS total_appointments, "
+                + "(SELECT COUNT(*) FROM medical_inventory) AS total_inventory, "
+                + "(SELECT COUNT(*) FROM medical_inventory WHERE quantity <= ?) AS low_stock_items";
+        long startTime = System.currentTimeMillis();
+        Map<String, Object> stats = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, lowStockThreshold);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    stats.put("totalPatients", rs.getInt("total_patients"));
+                    stats.put("totalDoctors", rs.getInt("total_doctors"));
+                    stats.put("totalAppointments", rs.getInt("total_appointments"));
+                    stats.put("totalInventory", rs.getInt("total_inventory"));
+                    stats.put("lowStockItems", rs.getInt("low_stock_items"));
+                }
+            }
+
+        } finally {
+            updatePerformanceStats(startTime);
+        }
+        return stats;
+    }
+
+    /**
+     * Fingerprints of the reference tables, keyed by table name, in one round
+     * trip: the row count in the high 32 bits and the XOR of every row's
+     * CRC32 in the low 32. Each row is hashed as its columns joined with '|',
+     * NULLs as '' (0 for numbers), which is what
+     * {@code ReferenceData} computes over its copy.
+     */
+    public Map<String, Long> getReferenceChecksums() throws SQLException {
+        String sql = "SELECT "
+                + "(SELECT COUNT(*) FROM departments) AS departments_count, "
+                + "(SELECT BIT_XOR(CRC32(CONCAT_WS('|', id, COALESCE(name, '')))) FROM departments)"
+                + " AS departments_crc, "
+                + "(SELECT COUNT(*) FROM doctors) AS doctors_count, "
+                + "(SELECT BIT_XOR(CRC32(CONCAT_WS('|', id, COALESCE(first_name, ''), COALESCE(last_name, ''), "
+                + "COALESCE(specialty, ''), COALESCE(department_id, 0), COALESCE(phone, ''), COALESCE(email, ''))))"
+                + " FROM doctors) AS doctors_crc, "
+                + "(SELECT COUNT(*) FROM medical_inventory) AS medical_inventory_count, "
+                + "(SELECT BIT_XOR(CRC32(CONCAT_WS('|', id, COALESCE(item_name, ''), COALESCE(quantity, 0), "
+                + "COALESCE(unit, '')))) FROM medical_inventory) AS medical_inventory_crc";
+        long startTime = System.currentTimeMillis();
+        Map<String, Long> checksums = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+            if (rs.next()) {
+                for (String table : new String[] { "departments", "doctors", "medical_inventory" }) {
+                    checksums.put(table, rs.getLong(table + "_count") << 32 | rs.getLong(table + "_crc"));
+                }
+            }
+        } finally {
+            updatePerformanceStats(startTime);
+        }
+        return checksums;
+    }
+
+    private synchronized void updatePerformanceStats(long startTime) {
+        long endTime = System.currentTimeMillis();
+        totalQueryTime += (endTime - startTime);
+        queryCount++;
+    }
+
+    public synchronized double getAverageQueryTime() {
+        return queryCount > 0 ? (double) totalQueryTime / queryCount : 0;
+    }
+}
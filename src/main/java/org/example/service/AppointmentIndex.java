@@ -0,0 +1,339 @@
+package org.example.service;
+
+import org.example.model.Appointment;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory appointment cache with secondary indexes by date, patient and
+ * doctor, plus a {@link DoctorSchedule} per doctor and day for slot checks.
+ * Writes patch only the entries of the affected appointment.
+ *
+ * The index keys an appointment was filed under are remembered separately,
+ * because callers may mutate a cached Appointment (for example in the update
+ * dialog) before the change is written back.
+ */
+class AppointmentIndex {
+
+    private static final Comparator<Appointment> BY_TIME = Comparator.comparing(Appointment::getAppointmentTime,
+            Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Insertion ordered so a full listing keeps the database order
+    private final Map<Integer, Appointment> byId = new LinkedHashMap<>();
+    private final Map<Integer, IndexKeys> keysById = new HashMap<>();
+    // Date ordered so range queries are a sub-map view
+    private final TreeMap<LocalDate, Map<Integer, Appointment>> byDate = new TreeMap<>();
+    private final Map<Integer, Map<Integer, Appointment>> byPatient = new HashMap<>();
+    private final Map<Integer, Map<Integer, Appointment>> byDoctor = new HashMap<>();
+    private final Map<Integer, Map<LocalDate, DoctorSchedule>> byDoctorDay = new HashMap<>();
+    private boolean fullyLoaded = false;
+    // Bumped on every write so a full load that raced with a write can be discarded
+    private long version = 0;
+
+    boolean isFullyLoaded() {
+        lock.readLock().lock();
+        try {
+            return fullyLoaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long version() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents with a complete listing from the database, unless
+     * a write has been applied since {@code versionAtStart} was read, in which
+     * case the listing may predate that write and is ignored.
+     */
+    boolean loadAll(List<Appointment> appointments, long versionAtStart) {
+        lock.writeLock().lock();
+        try {
+            if (version != versionAtStart) {
+                return false;
+            }
+            clearIndexes();
+            for (Appointment appt : appointments) {
+                insert(appt);
+            }
+            fullyLoaded = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Appointment get(int id) {
+        lock.readLock().lock();
+        try {
+            return byId.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void put(Appointment appt) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            delete(appt.getId());
+            insert(appt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            delete(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeByPatient(int patientId) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            Map<Integer, Appointment> bucket = byPatient.get(patientId);
+            if (bucket != null) {
+                for (Integer id : new ArrayList<>(bucket.keySet())) {
+                    delete(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeByDoctor(int doctorId) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            Map<Integer, Appointment> bucket = byDoctor.get(doctorId);
+            if (bucket != null) {
+                for (Integer id : new ArrayList<>(bucket.keySet())) {
+                    delete(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Rewrites the joined patient name on that patient's cached appointments. */
+    void renamePatient(int patientId, String name) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            Map<Integer, Appointment> bucket = byPatient.get(patientId);
+            if (bucket != null) {
+                for (Appointment appt : bucket.values()) {
+                    appt.setPatientName(name);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Rewrites the joined doctor name on that doctor's cached appointments. */
+    void renameDoctor(int doctorId, String name) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            Map<Integer, Appointment> bucket = byDoctor.get(doctorId);
+            if (bucket != null) {
+                for (Appointment appt : bucket.values()) {
+                    appt.setDoctorName(name);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Appointment> all() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(byId.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Appointment> onDate(LocalDate date) {
+        lock.readLock().lock();
+        try {
+            return copyOf(byDate.get(date));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Appointments from {@code start} to {@code end} inclusive, ordered by date and time. */
+    List<Appointment> between(LocalDate start, LocalDate end) {
+        lock.readLock().lock();
+        try {
+            List<Appointment> result = new ArrayList<>();
+            if (start.isAfter(end)) {
+                return result;
+            }
+            for (Map<Integer, Appointment> bucket : byDate.subMap(start, true, end, true).values()) {
+                int from = result.size();
+                result.addAll(bucket.values());
+                result.subList(from, result.size()).sort(BY_TIME);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Appointment> forPatient(int patientId) {
+        lock.readLock().lock();
+        try {
+            return copyOf(byPatient.get(patientId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Appointment> forDoctor(int doctorId) {
+        lock.readLock().lock();
+        try {
+            return copyOf(byDoctor.get(doctorId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Runs {@code query} against one doctor's day under the read lock; the schedule must not escape it. */
+    <T> T withSchedule(int doctorId, LocalDate date, Function<DoctorSchedule, T> query) {
+        lock.readLock().lock();
+        try {
+            DoctorSchedule schedule = byDoctorDay.getOrDefault(doctorId, Map.of()).get(date);
+            return query.apply(schedule != null ? schedule : new DoctorSchedule());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Map<String, Object> sizes() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> sizes = new LinkedHashMap<>();
+            sizes.put("cacheSize", byId.size());
+            sizes.put("dateIndexSize", byDate.size());
+            sizes.put("patientIndexSize", byPatient.size());
+            sizes.put("doctorIndexSize", byDoctor.size());
+            sizes.put("scheduleIndexSize", byDoctorDay.values().stream().mapToInt(Map::size).sum());
+            sizes.put("fullyLoaded", fullyLoaded);
+            return sizes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            version++;
+            clearIndexes();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(Appointment appt) {
+        IndexKeys keys = new IndexKeys(appt.getAppointmentDate(), appt.getPatientId(), appt.getDoctorId());
+        byId.put(appt.getId(), appt);
+        keysById.put(appt.getId(), keys);
+        if (keys.date != null) {
+            byDate.computeIfAbsent(keys.date, k -> new LinkedHashMap<>()).put(appt.getId(), appt);
+        }
+        byPatient.computeIfAbsent(keys.patientId, k -> new LinkedHashMap<>()).put(appt.getId(), appt);
+        byDoctor.computeIfAbsent(keys.doctorId, k -> new LinkedHashMap<>()).put(appt.getId(), appt);
+        if (keys.date != null && DoctorSchedule.occupiesSlot(appt)) {
+            byDoctorDay.computeIfAbsent(keys.doctorId, k -> new HashMap<>())
+                    .computeIfAbsent(keys.date, k -> new DoctorSchedule()).add(appt);
+        }
+    }
+
+    private void delete(int id) {
+        byId.remove(id);
+        IndexKeys keys = keysById.remove(id);
+        if (keys == null) {
+            return;
+        }
+        if (keys.date != null) {
+            removeFromBucket(byDate, keys.date, id);
+            removeFromSchedule(keys.doctorId, keys.date, id);
+        }
+        removeFromBucket(byPatient, keys.patientId, id);
+        removeFromBucket(byDoctor, keys.doctorId, id);
+    }
+
+    private void clearIndexes() {
+        byId.clear();
+        keysById.clear();
+        byDate.clear();
+        byPatient.clear();
+        byDoctor.clear();
+        byDoctorDay.clear();
+        fullyLoaded = false;
+    }
+
+    private static <K> void removeFromBucket(Map<K, Map<Integer, Appointment>> index, K key, int id) {
+        Map<Integer, Appointment> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private void removeFromSchedule(int doctorId, LocalDate date, int id) {
+        Map<LocalDate, DoctorSchedule> days = byDoctorDay.get(doctorId);
+        DoctorSchedule schedule = days != null ? days.get(date) : null;
+        if (schedule != null) {
+            schedule.remove(id);
+            if (schedule.isEmpty()) {
+                days.remove(date);
+                if (days.isEmpty()) {
+                    byDoctorDay.remove(doctorId);
+                }
+            }
+        }
+    }
+
+    private static List<Appointment> copyOf(Map<Integer, Appointment> bucket) {
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket.values());
+    }
+
+    private static final class IndexKeys {
+        final LocalDate date;
+        final int patientId;
+        final int doctorId;
+
+        IndexKeys(LocalDate date, int patientId, int doctorId) {
+            this.date = date;
+            this.patientId = patientId;
+            this.doctorId = doctorId;
+        }
+    }
+}
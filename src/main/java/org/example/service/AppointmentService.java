@@ -2,109 +2,194 @@ package org.example.service;
 
 import org.example.dao.AppointmentDAO;
 import org.example.model.Appointment;
+import org.example.model.Doctor;
+import org.example.model.Patient;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class AppointmentService {
+    // Bookable hours and slot grid used when suggesting free slots
+    private static final LocalTime DAY_START = LocalTime.of(8, 0);
+    private static final LocalTime DAY_END = LocalTime.of(18, 0);
+    private static final int SLOT_MINUTES = 30;
+    private static final int FREE_SLOT_SEARCH_DAYS = 30;
+    private static final int SUGGESTED_SLOTS = 3;
+    // Keeps the conflict check and the write of one booking together within this process
+    private static final Object bookingLock = new Object();
+
     private AppointmentDAO appointmentDAO = new AppointmentDAO();
-    private List<Appointment> appointmentCache = new ArrayList<>();
-    private Map<Integer, Appointment> appointmentMapCache = new ConcurrentHashMap<>();
-    private Map<String, List<Appointment>> appointmentDateCache = new ConcurrentHashMap<>();
-    private int cacheHits = 0;
-    private int cacheMisses = 0;
+
+    // Shared by every AppointmentService instance; writes patch it in place instead of clearing it
+    private static final AppointmentIndex appointmentIndex = new AppointmentIndex();
+    private static final LongAdder cacheHits = new LongAdder();
+    private static final LongAdder cacheMisses = new LongAdder();
+    private static final LongAdder writeThroughCount = new LongAdder();
+    private static final LongAdder writeThroughNanos = new LongAdder();
+    private static final LongAdder indexPatchNanos = new LongAdder();
+
+    static {
+        CacheRegistry.register("appointments", AppointmentService::getCacheStatistics,
+                AppointmentService::resetCache);
+        ChangeBus.subscribe(Appointment.class, AppointmentService::applyChange);
+        // Their appointments go with them via ON DELETE CASCADE; a rename changes the joined names
+        ChangeBus.subscribe(Patient.class, change -> {
+            if (change.getType() == EntityChange.Type.DELETED) {
+                appointmentIndex.removeByPatient(change.getId());
+            } else if (change.getType() == EntityChange.Type.UPDATED) {
+                appointmentIndex.renamePatient(change.getId(), patientName(change.getEntity()));
+            }
+        });
+        ChangeBus.subscribe(Doctor.class, change -> {
+            if (change.getType() == EntityChange.Type.DELETED) {
+                appointmentIndex.removeByDoctor(change.getId());
+            } else if (change.getType() == EntityChange.Type.UPDATED) {
+                appointmentIndex.renameDoctor(change.getId(), doctorName(change.getEntity()));
+            }
+        });
+    }
+
+    /** The patient name as AppointmentDAO joins it onto an appointment. */
+    public static String patientName(Patient patient) {
+        return patient.getFirstName() + " " + patient.getLastName();
+    }
+
+    /** The doctor name as AppointmentDAO joins it onto an appointment. */
+    public static String doctorName(Doctor doctor) {
+        return "Dr. " + doctor.getFirstName() + " " + doctor.getLastName();
+    }
 
     public void addAppointment(Appointment appointment) throws SQLException {
         appointmentDAO.addAppointment(appointment);
-        invalidateCache();
+        writeThrough(appointment.getId(), EntityChange.Type.CREATED);
     }
 
     public Appointment getAppointment(int id) throws SQLException {
-        if (appointmentMapCache.containsKey(id)) {
-            cacheHits++;
-            return appointmentMapCache.get(id);
+        Appointment cached = appointmentIndex.get(id);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
         }
-        cacheMisses++;
+        cacheMisses.increment();
         Appointment appointment = appointmentDAO.getAppointment(id);
         if (appointment != null) {
-            appointmentMapCache.put(id, appointment);
+            appointmentIndex.put(appointment);
         }
         return appointment;
     }
 
     public List<Appointment> getAllAppointments() throws SQLException {
-        if (!appointmentCache.isEmpty()) {
-            cacheHits++;
-            return new ArrayList<>(appointmentCache);
-        }
-        cacheMisses++;
-        appointmentCache = appointmentDAO.getAllAppointments();
-        for (Appointment appt : appointmentCache) {
-            appointmentMapCache.put(appt.getId(), appt);
+        if (appointmentIndex.isFullyLoaded()) {
+            cacheHits.increment();
+            return appointmentIndex.all();
         }
-        return new ArrayList<>(appointmentCache);
+        cacheMisses.increment();
+        long version = appointmentIndex.version();
+        List<Appointment> loaded = appointmentDAO.getAllAppointments();
+        appointmentIndex.loadAll(loaded, version);
+        return new ArrayList<>(loaded);
     }
 
+    /** Saves changes; moving it onto a slot the doctor already has booked is refused like a new booking. */
     public void updateAppointment(Appointment appointment) throws SQLException {
-        appointmentDAO.updateAppointment(appointment);
-        invalidateCache();
+        synchronized (bookingLock) {
+            checkSlotFree(appointment);
+            appointmentDAO.updateAppointment(appointment);
+        }
+        writeThrough(appointment.getId(), EntityChange.Type.UPDATED);
     }
 
     public void deleteAppointment(int id) throws SQLException {
         appointmentDAO.deleteAppointment(id);
-        invalidateCache();
+        long start = System.nanoTime();
+        ChangeBus.publish(EntityChange.deleted(Appointment.class, id));
+        recordWriteThrough(start);
     }
 
-    public List<Appointment> getAppointmentsByPatientId(int patientId) throws SQLException {
-        List<Appointment> allAppointments = getAllAppointments();
-        List<Appointment> result = new ArrayList<>();
+    // Re-reads one row (with the joined patient/doctor names) and publishes it; the index patches just that entry
+    private void writeThrough(int id, EntityChange.Type type) throws SQLException {
+        long start = System.nanoTime();
+        Appointment fresh = appointmentDAO.getAppointment(id);
+        if (fresh == null) {
+            ChangeBus.publish(EntityChange.deleted(Appointment.class, id));
+        } else if (type == EntityChange.Type.CREATED) {
+            ChangeBus.publish(EntityChange.created(Appointment.class, id, fresh));
+        } else {
+            ChangeBus.publish(EntityChange.updated(Appointment.class, id, fresh));
+        }
+        recordWriteThrough(start);
+    }
 
-        for (Appointment appt : allAppointments) {
-            if (appt.getPatientId() == patientId) {
-                result.add(appt);
-            }
+    private static void applyChange(EntityChange<Appointment> change) {
+        long start = System.nanoTime();
+        if (change.getType() == EntityChange.Type.DELETED) {
+            appointmentIndex.remove(change.getId());
+        } else {
+            appointmentIndex.put(change.getEntity());
         }
-        return result;
+        indexPatchNanos.add(System.nanoTime() - start);
     }
 
-    public List<Appointment> getAppointmentsByDoctorId(int doctorId) throws SQLException {
-        List<Appointment> allAppointments = getAllAppointments();
-        List<Appointment> result = new ArrayList<>();
+    private static void recordWriteThrough(long start) {
+        writeThroughCount.increment();
+        writeThroughNanos.add(System.nanoTime() - start);
+    }
 
-        for (Appointment appt : allAppointments) {
-            if (appt.getDoctorId() == doctorId) {
-                result.add(appt);
-            }
+    public List<Appointment> getAppointmentsByPatientId(int patientId) throws SQLException {
+        if (ensureFullyLoaded()) {
+            return appointmentIndex.forPatient(patientId);
         }
-        return result;
+        return filter(appt -> appt.getPatientId() == patientId);
+    }
+
+    public List<Appointment> getAppointmentsByDoctorId(int doctorId) throws SQLException {
+        if (ensureFullyLoaded()) {
+            return appointmentIndex.forDoctor(doctorId);
+        }
+        return filter(appt -> appt.getDoctorId() == doctorId);
     }
 
     public List<Appointment> getAppointmentsByDate(LocalDate date) throws SQLException {
-        String dateKey = date.toString();
-        if (appointmentDateCache.containsKey(dateKey)) {
-            cacheHits++;
-            return new ArrayList<>(appointmentDateCache.get(dateKey));
+        if (ensureFullyLoaded()) {
+            return appointmentIndex.onDate(date);
         }
+        return filter(appt -> date.equals(appt.getAppointmentDate()));
+    }
 
-        cacheMisses++;
-        List<Appointment> allAppointments = getAllAppointments();
-        List<Appointment> result = new ArrayList<>();
+    public List<Appointment> getAppointmentsByDateRange(LocalDate startDate, LocalDate endDate) throws SQLException {
+        if (appointmentIndex.isFullyLoaded()) {
+            cacheHits.increment();
+            return appointmentIndex.between(startDate, endDate);
+        }
+        cacheMisses.increment();
+        return appointmentDAO.getAppointmentsByDateRange(startDate, endDate);
+    }
 
-        for (Appointment appt : allAppointments) {
-            if (appt.getAppointmentDate().equals(date)) {
+    // Loads the index if needed; false only if a concurrent write made the load unusable
+    private boolean ensureFullyLoaded() throws SQLException {
+        if (appointmentIndex.isFullyLoaded()) {
+            cacheHits.increment();
+            return true;
+        }
+        getAllAppointments();
+        return appointmentIndex.isFullyLoaded();
+    }
+
+    private List<Appointment> filter(Predicate<Appointment> predicate) throws SQLException {
+        List<Appointment> result = new ArrayList<>();
+        for (Appointment appt : appointmentDAO.getAllAppointments()) {
+            if (predicate.test(appt)) {
                 result.add(appt);
             }
         }
-
-        appointmentDateCache.put(dateKey, new ArrayList<>(result));
         return result;
     }
 
-    public List<Appointment> getAppointmentsByDateRange(LocalDate startDate, LocalDate endDate) throws SQLException {
-        return appointmentDAO.getAppointmentsByDateRange(startDate, endDate);
-    }
-
     public Map<String, Integer> getAppointmentStats() throws SQLException {
         Map<String, Integer> stats = new HashMap<>();
         List<Appointment> appointments = getAllAppointments();
@@ -122,37 +207,130 @@ public class AppointmentService {
         return stats;
     }
 
-    public double getCacheHitRate() {
-        int totalAccesses = cacheHits + cacheMisses;
-        return totalAccesses > 0 ? (double) cacheHits / totalAccesses * 100 : 0;
+    public static double getCacheHitRate() {
+        long hits = cacheHits.sum();
+        long totalAccesses = hits + cacheMisses.sum();
+        return totalAccesses > 0 ? (double) hits / totalAccesses * 100 : 0;
     }
 
     public Map<String, Object> getPerformanceStats() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("cacheHits", cacheHits);
-        stats.put("cacheMisses", cacheMisses);
-        stats.put("cacheHitRate", String.format("%.2f%%", getCacheHitRate()));
-        stats.put("cacheSize", appointmentMapCache.size());
-        stats.put("listCacheSize", appointmentCache.size());
-        stats.put("dateCacheSize", appointmentDateCache.size());
+        Map<String, Object> stats = new HashMap<>(getCacheStatistics());
         stats.put("avgQueryTime", appointmentDAO.getAverageQueryTime());
         return stats;
     }
 
+    private static Map<String, Object> getCacheStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("cacheMisses", cacheMisses.sum());
+        stats.put("cacheHitRate", String.format("%.2f%%", getCacheHitRate()));
+        stats.putAll(appointmentIndex.sizes());
+        long writes = writeThroughCount.sum();
+        stats.put("writeThroughCount", writes);
+        // Full cost of keeping caches current after a write: the single-row re-read plus publishing the change
+        stats.put("avgWriteThroughMs", String.format("%.3f", writes > 0 ? writeThroughNanos.sum() / 1e6 / writes : 0.0));
+        stats.put("avgIndexPatchUs", String.format("%.3f", writes > 0 ? indexPatchNanos.sum() / 1e3 / writes : 0.0));
+        return stats;
+    }
+
+    /**
+     * Books the appointment unless it overlaps one the doctor already has on
+     * that day, in which case an IllegalStateException names the clash and
+     * the next free slots.
+     */
     public void scheduleAppointment(Appointment appointment) throws SQLException {
-        addAppointment(appointment);
+        synchronized (bookingLock) {
+            checkSlotFree(appointment);
+            appointmentDAO.addAppointment(appointment);
+        }
+        writeThrough(appointment.getId(), EntityChange.Type.CREATED);
+    }
+
+    /** True if the doctor has nothing booked overlapping {@code durationMinutes} from {@code time}. */
+    public boolean isSlotFree(int doctorId, LocalDate date, LocalTime time, int durationMinutes) throws SQLException {
+        int start = time.toSecondOfDay();
+        return getConflicts(doctorId, date, start, start + durationMinutes * 60, 0).isEmpty();
     }
 
-    private void invalidateCache() {
-        appointmentCache.clear();
-        appointmentMapCache.clear();
-        appointmentDateCache.clear();
+    /** The doctor's appointments on {@code date} overlapping [from, to), by start time. */
+    public List<Appointment> getConflicts(int doctorId, LocalDate date, LocalTime from, LocalTime to)
+            throws SQLException {
+        return getConflicts(doctorId, date, from.toSecondOfDay(), to.toSecondOfDay(), 0);
+    }
+
+    /**
+     * The doctor's next {@code count} free slots of SLOT_MINUTES within
+     * bookable hours, starting at {@code after}. Looks at most
+     * FREE_SLOT_SEARCH_DAYS ahead, so fewer may be returned.
+     */
+    public List<LocalDateTime> getNextFreeSlots(int doctorId, LocalDateTime after, int count) throws SQLException {
+        List<LocalDateTime> slots = new ArrayList<>();
+        int length = SLOT_MINUTES * 60;
+        for (int day = 0; day < FREE_SLOT_SEARCH_DAYS && slots.size() < count; day++) {
+            LocalDate date = after.toLocalDate().plusDays(day);
+            int from = Math.max(DAY_START.toSecondOfDay(), day == 0 ? after.toLocalTime().toSecondOfDay() : 0);
+            int wanted = count - slots.size();
+            for (int start : onSchedule(doctorId, date,
+                    schedule -> schedule.freeStarts(from, DAY_END.toSecondOfDay(), length, length, wanted))) {
+                slots.add(date.atTime(LocalTime.ofSecondOfDay(start)));
+            }
+        }
+        return slots;
+    }
+
+    private void checkSlotFree(Appointment appointment) throws SQLException {
+        if (appointment.getAppointmentDate() == null || !DoctorSchedule.occupiesSlot(appointment)) {
+            return;
+        }
+        int start = appointment.getAppointmentTime().toSecondOfDay();
+        List<Appointment> conflicts = getConflicts(appointment.getDoctorId(), appointment.getAppointmentDate(), start,
+                start + appointment.getDurationMinutes() * 60, appointment.getId());
+        if (conflicts.isEmpty()) {
+            return;
+        }
+        Appointment clash = conflicts.get(0);
+        StringBuilder message = new StringBuilder("The doctor already has appointment #" + clash.getId() + " at "
+                + clash.getAppointmentTime() + " on " + clash.getAppointmentDate() + ".");
+        List<LocalDateTime> free = getNextFreeSlots(appointment.getDoctorId(),
+                appointment.getAppointmentDate().atTime(appointment.getAppointmentTime()), SUGGESTED_SLOTS);
+        if (!free.isEmpty()) {
+            message.append(" Next free: ");
+            for (int i = 0; i < free.size(); i++) {
+                message.append(i > 0 ? ", " : "").append(free.get(i).toLocalDate()).append(' ')
+                        .append(free.get(i).toLocalTime());
+            }
+        }
+        throw new IllegalStateException(message.toString());
+    }
+
+    private List<Appointment> getConflicts(int doctorId, LocalDate date, int from, int to, int ignoreId)
+            throws SQLException {
+        return onSchedule(doctorId, date, schedule -> schedule.conflicts(from, to, ignoreId));
+    }
+
+    // Uses the cached schedule, or one built from idx_appointments_doctor_slot if the cache cannot be loaded
+    private <T> T onSchedule(int doctorId, LocalDate date, Function<DoctorSchedule, T> query) throws SQLException {
+        if (ensureFullyLoaded()) {
+            return appointmentIndex.withSchedule(doctorId, date, query);
+        }
+        DoctorSchedule schedule = new DoctorSchedule();
+        for (Appointment appt : appointmentDAO.getAppointmentsByDoctorAndDate(doctorId, date)) {
+            schedule.add(appt);
+        }
+        return query.apply(schedule);
     }
 
     public void clearCache() {
-        invalidateCache();
-        cacheHits = 0;
-        cacheMisses = 0;
+        resetCache();
         appointmentDAO.resetPerformanceStats();
     }
-}
\ No newline at end of file
+
+    private static void resetCache() {
+        appointmentIndex.clear();
+        cacheHits.reset();
+        cacheMisses.reset();
+        writeThroughCount.reset();
+        writeThroughNanos.reset();
+        indexPatchNanos.reset();
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.service;
+
+import org.example.model.Appointment;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/** Non-blocking view of {@link AppointmentService}; see {@link AsyncQueries}. */
+public class AsyncAppointmentService {
+    private final AppointmentService appointmentService;
+
+    public AsyncAppointmentService() {
+        this(new AppointmentService());
+    }
+
+    public AsyncAppointmentService(AppointmentService appointmentService) {
+        this.appointmentService = appointmentService;
+    }
+
+    public CompletableFuture<Appointment> getAppointment(int id) {
+        return AsyncQueries.sql(() -> appointmentService.getAppointment(id));
+    }
+
+    public CompletableFuture<List<Appointment>> getAllAppointments() {
+        return AsyncQueries.sql(appointmentService::getAllAppointments);
+    }
+
+    public CompletableFuture<List<Appointment>> getAppointmentsByPatientId(int patientId) {
+        return AsyncQueries.sql(() -> appointmentService.getAppointmentsByPatientId(patientId));
+    }
+
+    public CompletableFuture<List<Appointment>> getAppointmentsByDoctorId(int doctorId) {
+        return AsyncQueries.sql(() -> appointmentService.getAppointmentsByDoctorId(doctorId));
+    }
+
+    public CompletableFuture<List<Appointment>> getAppointmentsByDate(LocalDate date) {
+        return AsyncQueries.sql(() -> appointmentService.getAppointmentsByDate(date));
+    }
+
+    public CompletableFuture<List<Appointment>> getAppointmentsByDateRange(LocalDate startDate, LocalDate endDate) {
+        return AsyncQueries.sql(() -> appointmentService.getAppointmentsByDateRange(startDate, endDate));
+    }
+}
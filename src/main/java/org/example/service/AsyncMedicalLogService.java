@@ -0,0 +1,33 @@
+package org.example.service;
+
+import org.example.dao.MedicalLogDAO;
+import org.example.model.MedicalLog;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/** Non-blocking view of {@link MedicalLogDAO}; see {@link AsyncQueries}. */
+public class AsyncMedicalLogService {
+    private final MedicalLogDAO medicalLogDAO;
+
+    public AsyncMedicalLogService() {
+        this(new MedicalLogDAO());
+    }
+
+    public AsyncMedicalLogService(MedicalLogDAO medicalLogDAO) {
+        this.medicalLogDAO = medicalLogDAO;
+    }
+
+    public CompletableFuture<List<MedicalLog>> getLogsByPatientId(int patientId) {
+        return AsyncQueries.mongo(() -> medicalLogDAO.getLogsByPatientId(patientId));
+    }
+
+    public CompletableFuture<List<MedicalLog>> getLogsPage(Integer patientId, String severity, MedicalLog after,
+            int limit) {
+        return AsyncQueries.mongo(() -> medicalLogDAO.getLogsPage(patientId, severity, after, limit));
+    }
+
+    public CompletableFuture<Long> countLogs(Integer patientId, String severity) {
+        return AsyncQueries.mongo(() -> medicalLogDAO.countLogs(patientId, severity));
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.service;
+
+import org.example.model.Patient;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/** Non-blocking view of {@link PatientService}; see {@link AsyncQueries}. */
+public class AsyncPatientService {
+    private final PatientService patientService;
+
+    public AsyncPatientService() {
+        this(new PatientService());
+    }
+
+    public AsyncPatientService(PatientService patientService) {
+        this.patientService = patientService;
+    }
+
+    public CompletableFuture<Patient> getPatient(String email) {
+        return AsyncQueries.sql(() -> patientService.getPatient(email));
+    }
+
+    public CompletableFuture<Patient> getPatientById(int id) {
+        return AsyncQueries.sql(() -> patientService.getPatientById(id));
+    }
+
+    public CompletableFuture<Map<Integer, Patient>> getPatientsByIds(Collection<Integer> ids) {
+        return AsyncQueries.sql(() -> patientService.getPatientsByIds(ids));
+    }
+
+    public CompletableFuture<List<Patient>> getAllPatients() {
+        return AsyncQueries.sql(patientService::getAllPatients);
+    }
+
+    public CompletableFuture<List<Patient>> getPatientsPage(int afterId, int limit) {
+        return AsyncQueries.sql(() -> patientService.getPatientsPage(afterId, limit));
+    }
+
+    public CompletableFuture<List<Patient>> searchPatients(String name) {
+        return AsyncQueries.sql(() -> patientService.searchPatients(name));
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.service;
+
+import org.example.dao.PrescriptionFilter;
+import org.example.model.Prescription;
+import org.example.model.PrescriptionItem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/** Non-blocking view of {@link PrescriptionService}; see {@link AsyncQueries}. */
+public class AsyncPrescriptionService {
+    private final PrescriptionService prescriptionService;
+
+    public AsyncPrescriptionService() {
+        this(new PrescriptionService());
+    }
+
+    public AsyncPrescriptionService(PrescriptionService prescriptionService) {
+        this.prescriptionService = prescriptionService;
+    }
+
+    public CompletableFuture<Prescription> getPrescription(int id) {
+        return AsyncQueries.sql(() -> prescriptionService.getPrescription(id));
+    }
+
+    public CompletableFuture<List<Prescription>> getPrescriptionsByPatient(int patientId) {
+        return AsyncQueries.sql(() -> prescriptionService.getPrescriptionsByPatient(patientId));
+    }
+
+    public CompletableFuture<List<Prescription>> getPrescriptionsByPatient(int patientId, Prescription after,
+            int limit) {
+        return AsyncQueries.sql(() -> prescriptionService.getPrescriptionsByPatient(patientId, after, limit));
+    }
+
+    public CompletableFuture<List<Prescription>> getPrescriptionsByDoctor(int doctorId) {
+        return AsyncQueries.sql(() -> prescriptionService.getPrescriptionsByDoctor(doctorId));
+    }
+
+    public CompletableFuture<List<Prescription>> searchPrescriptions(PrescriptionFilter filter, Prescription after,
+            int limit) {
+        return AsyncQueries.sql(() -> prescriptionService.searchPrescriptions(filter, after, limit));
+    }
+
+    public CompletableFuture<Map<Integer, List<PrescriptionItem>>> getPrescriptionItems(
+            Collection<Integer> prescriptionIds) {
+        return AsyncQueries.sql(() -> prescriptionService.getPrescriptionItems(prescriptionIds));
+    }
+}
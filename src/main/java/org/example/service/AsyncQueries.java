@@ -0,0 +1,80 @@
+package org.example.service;
+
+import org.example.util.DatabaseConnection;
+import org.example.util.EnvLoader;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs blocking service and DAO calls on virtual threads and hands back
+ * {@link CompletableFuture}s, so a screen can start several independent
+ * queries at once and wait only as long as the slowest.
+ *
+ * Virtual threads are cheap, connections are not: MySQL calls hold one of
+ * DB_POOL_MAX_SIZE permits and MongoDB calls one of MONGO_POOL_MAX_SIZE, so
+ * a burst of futures queues here instead of timing out in the pools.
+ */
+public final class AsyncQueries {
+
+    @FunctionalInterface
+    public interface Query<T> {
+        T call() throws Exception;
+    }
+
+    private static final ExecutorService EXECUTOR = Executors
+            .newThreadPerTaskExecutor(Thread.ofVirtual().name("async-db-", 0).factory());
+
+    private static final Semaphore sqlPermits = new Semaphore(DatabaseConnection.getPoolMaxSize(), true);
+    // The driver's own default pool size when MONGO_POOL_MAX_SIZE is not set
+    private static final Semaphore mongoPermits = new Semaphore(EnvLoader.getInt("MONGO_POOL_MAX_SIZE", 100), true);
+
+    private AsyncQueries() {
+    }
+
+    /** Runs a MySQL-backed call. */
+    public static <T> CompletableFuture<T> sql(Query<T> query) {
+        return submit(sqlPermits, query);
+    }
+
+    /** Runs a MongoDB-backed call. */
+    public static <T> CompletableFuture<T> mongo(Query<T> query) {
+        return submit(mongoPermits, query);
+    }
+
+    /**
+     * Waits for {@code future} and rethrows the original failure rather than
+     * the CompletionException wrapping it. For use off the FX thread.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static <T> CompletableFuture<T> submit(Semaphore permits, Query<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return query.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                permits.release();
+            }
+        }, EXECUTOR);
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.service;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, thread-safe key/value cache used by the services. Entries expire
+ * {@code ttlMillis} after they were written (0 keeps them until evicted) and
+ * the cache evicts by least-recent or least-frequent use once it is full.
+ *
+ * Create instances through {@link CacheRegistry#create} so they show up in
+ * the cache statistics report and are emptied by "Clear Cache".
+ */
+public final class Cache<K, V> {
+
+    public enum EvictionPolicy {
+        LRU, LFU
+    }
+
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final EvictionPolicy policy;
+
+    // Access ordered, so iteration starts at the least recently used entry (LRU only)
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Keys per use count, each set in first-use order (LFU only)
+    private final TreeMap<Long, LinkedHashSet<K>> frequencies = new TreeMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    Cache(String name, int maxSize, long ttlMillis, EvictionPolicy policy) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache " + name + " needs a positive size, got " + maxSize);
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = Math.max(0, ttlMillis);
+        this.policy = policy;
+        this.entries = new LinkedHashMap<>(16, 0.75f, policy == EvictionPolicy.LRU);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Returns the cached value, or null when absent or expired. */
+    public V get(K key) {
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !isExpired(entry)) {
+                touch(key, entry);
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                expirations.increment();
+                unlink(key);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Returns the cached value or loads it. The loader runs outside the lock,
+     * so two callers missing the same key may both load it; the later put wins.
+     * Null results are not cached.
+     */
+    public V getOrLoad(K key, Loader<K, V> loader) throws SQLException {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.load(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        if (entries.containsKey(key)) {
+            unlink(key);
+        } else if (entries.size() >= maxSize) {
+            evictOne();
+        }
+        Entry<V> entry = new Entry<>(value, System.currentTimeMillis());
+        entries.put(key, entry);
+        if (policy == EvictionPolicy.LFU) {
+            frequencies.computeIfAbsent(entry.uses, k -> new LinkedHashSet<>()).add(key);
+        }
+    }
+
+    public synchronized void remove(K key) {
+        if (entries.containsKey(key)) {
+            unlink(key);
+        }
+    }
+
+    /** Drops every entry whose value matches, e.g. all rows belonging to a deleted parent. */
+    public synchronized void removeIf(Predicate<V> predicate) {
+        List<K> matching = new ArrayList<>();
+        entries.forEach((k, entry) -> {
+            if (predicate.test(entry.value)) {
+                matching.add(k);
+            }
+        });
+        matching.forEach(this::unlink);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        frequencies.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        expirations.reset();
+    }
+
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("policy", policy);
+        stats.put("size", size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlMs", ttlMillis);
+        stats.put("hits", hitCount);
+        stats.put("misses", total - hitCount);
+        stats.put("hitRate", String.format("%.2f%%", total > 0 ? (double) hitCount / total * 100 : 0.0));
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        return stats;
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlMillis > 0 && System.currentTimeMillis() - entry.writtenAt > ttlMillis;
+    }
+
+    private void touch(K key, Entry<V> entry) {
+        if (policy != EvictionPolicy.LFU) {
+            return; // the access-ordered map already moved it
+        }
+        removeFrequency(key, entry.uses);
+        entry.uses++;
+        frequencies.computeIfAbsent(entry.uses, k -> new LinkedHashSet<>()).add(key);
+    }
+
+    private void evictOne() {
+        K victim;
+        if (policy == EvictionPolicy.LFU) {
+            victim = frequencies.firstEntry().getValue().iterator().next();
+        } else {
+            victim = entries.keySet().iterator().next();
+        }
+        unlink(victim);
+        evictions.increment();
+    }
+
+    private void unlink(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null && policy == EvictionPolicy.LFU) {
+            removeFrequency(key, entry.uses);
+        }
+    }
+
+    private void removeFrequency(K key, long uses) {
+        LinkedHashSet<K> keys = frequencies.get(uses);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                frequencies.remove(uses);
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long writtenAt;
+        long uses = 1;
+
+        Entry(V value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.service;
+
+import org.example.util.EnvLoader;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Every service-layer cache, by name, so the reports can list them and
+ * "Clear Cache" can empty them in one call. Caches that are not a
+ * {@link Cache} (such as the appointment index) register their statistics
+ * and clear action directly.
+ */
+public final class CacheRegistry {
+    static final int DEFAULT_MAX_ENTRIES = EnvLoader.getInt("SERVICE_CACHE_MAX_ENTRIES", 1_000);
+    static final long DEFAULT_TTL_MS = EnvLoader.getLong("SERVICE_CACHE_TTL_MS", 300_000);
+
+    private static final Map<String, Registration> REGISTRATIONS = new TreeMap<>();
+
+    private CacheRegistry() {
+    }
+
+    static <K, V> Cache<K, V> create(String name, Cache.EvictionPolicy policy) {
+        return create(name, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS, policy);
+    }
+
+    static <K, V> Cache<K, V> create(String name, int maxSize, long ttlMillis, Cache.EvictionPolicy policy) {
+        Cache<K, V> cache = new Cache<>(name, maxSize, ttlMillis, policy);
+        register(name, cache::getStatistics, () -> {
+            cache.clear();
+            cache.resetStatistics();
+        });
+        return cache;
+    }
+
+    static synchronized void register(String name, Supplier<Map<String, Object>> statistics, Runnable clear) {
+        if (REGISTRATIONS.putIfAbsent(name, new Registration(statistics, clear)) != null) {
+            throw new IllegalStateException("Cache already registered: " + name);
+        }
+    }
+
+    /** Statistics of every registered cache, ordered by cache name. */
+    public static Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> all = new LinkedHashMap<>();
+        for (Map.Entry<String, Registration> e : snapshot().entrySet()) {
+            all.put(e.getKey(), e.getValue().statistics.get());
+        }
+        return all;
+    }
+
+    /** Empties every registered cache and resets its counters. */
+    public static void clearAll() {
+        snapshot().values().forEach(r -> r.clear.run());
+    }
+
+    private static synchronized Map<String, Registration> snapshot() {
+        return new TreeMap<>(REGISTRATIONS);
+    }
+
+    private static final class Registration {
+        final Supplier<Map<String, Object>> statistics;
+        final Runnable clear;
+
+        Registration(Supplier<Map<String, Object>> statistics, Runnable clear) {
+            this.statistics = statistics;
+            this.clear = clear;
+        }
+    }
+}
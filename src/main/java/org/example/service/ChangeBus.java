@@ -0,0 +1,49 @@
+package org.example.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe for {@link EntityChange}s. The services
+ * publish after each committed write; their caches and any open table views
+ * subscribe and patch themselves instead of being cleared and reloaded.
+ *
+ * Listeners run synchronously on the publishing thread, which is usually a
+ * background task, in the order they subscribed. Views hop to the FX thread
+ * themselves. A listener that throws is logged and skipped so it cannot fail
+ * the write that published the change.
+ */
+public final class ChangeBus {
+
+    @FunctionalInterface
+    public interface Subscription {
+        void cancel();
+    }
+
+    private static final Map<Class<?>, List<Consumer<EntityChange<?>>>> listeners = new ConcurrentHashMap<>();
+
+    private ChangeBus() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Subscription subscribe(Class<T> entityType, Consumer<EntityChange<T>> listener) {
+        List<Consumer<EntityChange<?>>> forType = listeners.computeIfAbsent(entityType,
+                k -> new CopyOnWriteArrayList<>());
+        Consumer<EntityChange<?>> entry = change -> listener.accept((EntityChange<T>) change);
+        forType.add(entry);
+        return () -> forType.remove(entry);
+    }
+
+    public static void publish(EntityChange<?> change) {
+        for (Consumer<EntityChange<?>> listener : listeners.getOrDefault(change.getEntityType(), List.of())) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                System.err.println("Change listener failed on " + change + ": " + e.getMessage());
+            }
+        }
+    }
+}
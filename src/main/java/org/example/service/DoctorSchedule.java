@@ -0,0 +1,112 @@
+package org.example.service;
+
+import org.example.model.Appointment;
+
+import java.util.*;
+
+/**
+ * One doctor's appointments on one day as a sorted interval structure, for
+ * double-booking checks. An appointment occupies [time, time + duration);
+ * cancelled appointments free their slot and are not kept.
+ *
+ * Appointments are keyed by their start second. Anything overlapping
+ * [from, to) starts before {@code to} and less than the longest duration
+ * before {@code from}, so a lookup only visits that sub-map: O(log n + k)
+ * for k candidates.
+ */
+class DoctorSchedule {
+    private static final String CANCELLED = "cancelled";
+
+    private final TreeMap<Integer, Map<Integer, Appointment>> byStart = new TreeMap<>();
+    // Where each appointment was filed, as the cached object may be mutated before it is written back
+    private final Map<Integer, Slot> slotsById = new HashMap<>();
+    // Only grows, so it stays an upper bound after removals
+    private int longestSeconds = 0;
+
+    static boolean occupiesSlot(Appointment appt) {
+        return appt.getAppointmentTime() != null && !CANCELLED.equalsIgnoreCase(appt.getStatus());
+    }
+
+    void add(Appointment appt) {
+        if (!occupiesSlot(appt)) {
+            return;
+        }
+        Slot slot = new Slot(appt.getAppointmentTime().toSecondOfDay(),
+                Math.max(1, appt.getDurationMinutes()) * 60);
+        slotsById.put(appt.getId(), slot);
+        byStart.computeIfAbsent(slot.start, k -> new LinkedHashMap<>()).put(appt.getId(), appt);
+        longestSeconds = Math.max(longestSeconds, slot.length);
+    }
+
+    void remove(int id) {
+        Slot slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        Map<Integer, Appointment> atStart = byStart.get(slot.start);
+        atStart.remove(id);
+        if (atStart.isEmpty()) {
+            byStart.remove(slot.start);
+        }
+    }
+
+    boolean isEmpty() {
+        return slotsById.isEmpty();
+    }
+
+    /** Appointments overlapping [from, to) in seconds of the day, by start time, other than {@code ignoreId}. */
+    List<Appointment> conflicts(int from, int to, int ignoreId) {
+        List<Appointment> result = new ArrayList<>();
+        if (to <= from) {
+            return result;
+        }
+        for (Map<Integer, Appointment> atStart : byStart.subMap(from - longestSeconds, false, to, false).values()) {
+            for (Appointment appt : atStart.values()) {
+                Slot slot = slotsById.get(appt.getId());
+                if (appt.getId() != ignoreId && slot.start + slot.length > from) {
+                    result.add(appt);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Up to {@code count} free starts of {@code length} seconds, on a grid of
+     * {@code step} seconds from midnight, no earlier than {@code from} and
+     * ending by {@code dayEnd}. Past a conflict the search jumps to the end of
+     * the conflicting appointments instead of testing every step.
+     */
+    List<Integer> freeStarts(int from, int dayEnd, int length, int step, int count) {
+        List<Integer> starts = new ArrayList<>();
+        int candidate = roundUp(from, step);
+        while (starts.size() < count && candidate + length <= dayEnd) {
+            int busyUntil = -1;
+            for (Appointment appt : conflicts(candidate, candidate + length, 0)) {
+                Slot slot = slotsById.get(appt.getId());
+                busyUntil = Math.max(busyUntil, slot.start + slot.length);
+            }
+            if (busyUntil < 0) {
+                starts.add(candidate);
+                candidate += step;
+            } else {
+                candidate = roundUp(busyUntil, step);
+            }
+        }
+        return starts;
+    }
+
+    private static int roundUp(int seconds, int step) {
+        return Math.floorDiv(seconds + step - 1, step) * step;
+    }
+
+    private static final class Slot {
+        final int start;
+        final int length;
+
+        Slot(int start, int length) {
+            this.start = start;
+            this.length = length;
+        }
+    }
+}
@@ -7,23 +7,22 @@ import java.sql.SQLException;
 import java.util.*;
 
 public class DoctorService {
+    private static final Cache<String, Doctor> doctorCache = CacheRegistry.create("doctors.byEmail",
+            Cache.EvictionPolicy.LRU);
+
+    static {
+        ChangeBus.subscribe(Doctor.class, DoctorService::applyChange);
+    }
+
     private DoctorDAO doctorDAO = new DoctorDAO();
-    private Map<String, Doctor> doctorCache = new HashMap<>();
 
     public void addDoctor(Doctor doctor) throws SQLException {
         doctorDAO.addDoctor(doctor);
-        invalidateCache();
+        ChangeBus.publish(EntityChange.created(Doctor.class, doctor.getId(), doctor));
     }
 
     public Doctor getDoctor(String email) throws SQLException {
-        if (doctorCache.containsKey(email)) {
-            return doctorCache.get(email);
-        }
-        Doctor doctor = doctorDAO.getDoctor(email);
-        if (doctor != null) {
-            doctorCache.put(email, doctor);
-        }
-        return doctor;
+        return doctorCache.getOrLoad(email, doctorDAO::getDoctor);
     }
 
     public Doctor getDoctorById(int id) throws SQLException {
@@ -35,7 +34,7 @@ public class DoctorService {
     }
 
     public List<Doctor> getAllDoctors() throws SQLException {
-        List<Doctor> doctors = doctorDAO.getAllDoctors();
+        List<Doctor> doctors = ReferenceData.getDoctors();
         for (Doctor d : doctors) {
             doctorCache.put(d.getEmail(), d);
         }
@@ -44,15 +43,25 @@ public class DoctorService {
 
     public void updateDoctor(Doctor doctor, String originalEmail) throws SQLException {
         doctorDAO.updateDoctor(doctor, originalEmail);
-        invalidateCache();
+        doctorCache.remove(originalEmail);
+        Doctor saved = doctor.getId() > 0 ? doctor : doctorDAO.getDoctor(doctor.getEmail());
+        if (saved != null) {
+            ChangeBus.publish(EntityChange.updated(Doctor.class, saved.getId(), saved));
+        }
     }
 
     public void deleteDoctor(int id) throws SQLException {
         doctorDAO.deleteDoctor(id);
-        invalidateCache();
+        ChangeBus.publish(EntityChange.deleted(Doctor.class, id));
     }
 
-    private void invalidateCache() {
-        doctorCache.clear();
+    private static void applyChange(EntityChange<Doctor> change) {
+        if (change.getType() == EntityChange.Type.CREATED) {
+            return;
+        }
+        doctorCache.removeIf(d -> d.getId() == change.getId());
+        if (change.getType() == EntityChange.Type.UPDATED) {
+            doctorCache.put(change.getEntity().getEmail(), change.getEntity());
+        }
     }
 }
\ No newline at end of file
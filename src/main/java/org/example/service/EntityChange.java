@@ -0,0 +1,47 @@
+package org.example.service;
+
+/**
+ * A committed write to one entity, published on the {@link ChangeBus}.
+ * Created and updated changes carry the saved entity; deleted changes only
+ * carry the id.
+ */
+public final class EntityChange<T> {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Class<T> entityType;
+    private final Type type;
+    private final int id;
+    private final T entity;
+
+    private EntityChange(Class<T> entityType, Type type, int id, T entity) {
+        this.entityType = entityType;
+        this.type = type;
+        this.id = id;
+        this.entity = entity;
+    }
+
+    public static <T> EntityChange<T> created(Class<T> entityType, int id, T entity) {
+        return new EntityChange<>(entityType, Type.CREATED, id, entity);
+    }
+
+    public static <T> EntityChange<T> updated(Class<T> entityType, int id, T entity) {
+        return new EntityChange<>(entityType, Type.UPDATED, id, entity);
+    }
+
+    public static <T> EntityChange<T> deleted(Class<T> entityType, int id) {
+        return new EntityChange<>(entityType, Type.DELETED, id, null);
+    }
+
+    public Class<T> getEntityType() { return entityType; }
+    public Type getType() { return type; }
+    public int getId() { return id; }
+    public T getEntity() { return entity; }
+
+    @Override
+    public String toString() {
+        return type + " " + entityType.getSimpleName() + " #" + id;
+    }
+}
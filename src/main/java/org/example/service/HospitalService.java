@@ -2,10 +2,13 @@ package org.example.service;
 
 import org.example.dao.*;
 import org.example.model.*;
+import org.example.util.DatabaseConnection;
+import org.example.util.EnvLoader;
+import org.example.util.MongoDBConnection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class HospitalService {
     private final PatientDAO patientDAO = new PatientDAO();
@@ -15,72 +18,97 @@ public class HospitalService {
     private final PatientFeedbackDAO feedbackDAO = new PatientFeedbackDAO();
     private final DepartmentDAO departmentDAO = new DepartmentDAO();
 
-    private final Map<Integer, Patient> patientCache = new ConcurrentHashMap<>();
+    private final StatisticsDAO statisticsDAO = new StatisticsDAO();
+
+    // Owns the registered, change-aware patient caches; this class keeps none of its own
+    private final PatientService patientService = new PatientService();
+
+    private static final int LOW_STOCK_THRESHOLD = 10;
+    private static final long STATS_CACHE_TTL_MS = EnvLoader.getLong("STATS_CACHE_TTL_MS", 5_000);
+    private static volatile StatsSnapshot statsSnapshot = null;
+    private static volatile boolean statsInvalidated = false;
+    private static final AtomicBoolean statsRefreshing = new AtomicBoolean(false);
+
+    static {
+        // Any write to a counted table makes the dashboard counters stale
+        ChangeBus.subscribe(Patient.class, change -> invalidateStatistics());
+        ChangeBus.subscribe(Doctor.class, change -> invalidateStatistics());
+        ChangeBus.subscribe(Appointment.class, change -> invalidateStatistics());
+        ChangeBus.subscribe(MedicalInventory.class, change -> invalidateStatistics());
+    }
 
     public List<Patient> getAllPatients() throws SQLException {
-        if (patientCache.isEmpty()) {
-            patientDAO.getAllPatients().forEach(p -> patientCache.put(p.getId(), p));
-        }
-        return new ArrayList<>(patientCache.values());
+        return patientService.getAllPatients();
     }
 
     public void addPatient(Patient p) throws SQLException {
-        patientDAO.addPatient(p);
-        patientCache.put(p.getId(), p);
+        patientService.addPatient(p);
     }
 
+    /**
+     * Searches patients and sorts the matches. {@code field} may list several
+     * comma-separated fields ("name", "id", "dob"), compared in that order.
+     * An empty term sorts every patient.
+     */
     public List<Patient> searchAndSortPatients(String term, String field, boolean asc) throws SQLException {
-        List<Patient> list = patientDAO.searchPatients(term);
-        if (list.size() < 2)
-            return list;
-        quickSort(list, 0, list.size() - 1, field, asc);
-        return list;
-    }
-
-    private void quickSort(List<Patient> list, int low, int high, String field, boolean asc) {
-        if (low < high) {
-            int pi = partition(list, low, high, field, asc);
-            quickSort(list, low, pi - 1, field, asc);
-            quickSort(list, pi + 1, high, field, asc);
+        List<Patient> list = term == null || term.isBlank()
+                ? patientService.getAllPatients()
+                : patientService.searchPatients(term);
+        return PatientSorter.of(field, asc).sort(list);
+    }
+
+    /**
+     * Dashboard counters. Served from a snapshot shared by all instances; once
+     * the snapshot is older than STATS_CACHE_TTL_MS the stale copy is returned
+     * and a fresh one is loaded in the background. After
+     * {@link #invalidateStatistics()} the next call reloads synchronously so a
+     * write is reflected straight away.
+     */
+    public Map<String, Object> getSystemStatistics() throws SQLException {
+        StatsSnapshot snapshot = statsSnapshot;
+        if (snapshot == null || statsInvalidated) {
+            return new HashMap<>(reloadStatistics().values);
         }
+        if (System.currentTimeMillis() - snapshot.loadedAt > STATS_CACHE_TTL_MS
+                && statsRefreshing.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("stats-refresh").start(() -> {
+                try {
+                    reloadStatistics();
+                } catch (SQLException e) {
+                    System.err.println("Background statistics refresh failed: " + e.getMessage());
+                } finally {
+                    statsRefreshing.set(false);
+                }
+            });
+        }
+        return new HashMap<>(snapshot.values);
     }
 
-    private int partition(List<Patient> list, int low, int high, String field, boolean asc) {
-        Patient pivot = list.get(high);
-        int i = (low - 1);
-        for (int j = low; j < high; j++) {
-            if (compare(list.get(j), pivot, field, asc) <= 0) {
-                i++;
-                Collections.swap(list, i, j);
-            }
-        }
-        Collections.swap(list, i + 1, high);
-        return i + 1;
-    }
-
-    private int compare(Patient p1, Patient p2, String field, boolean asc) {
-        int res = 0;
-        switch (field.toLowerCase()) {
-            case "name":
-                res = (p1.getFirstName() + p1.getLastName()).compareToIgnoreCase(p2.getFirstName() + p2.getLastName());
-                break;
-            case "id":
-                res = Integer.compare(p1.getId(), p2.getId());
-                break;
-            default:
-                res = Integer.compare(p1.getId(), p2.getId());
+    /** Serves {@code values} as counters loaded at {@code loadedAt}, e.g. from the warm-start snapshot. */
+    static void seedStatistics(Map<String, Object> values, long loadedAt) {
+        if (statsSnapshot == null) {
+            statsSnapshot = new StatsSnapshot(values, loadedAt);
         }
-        return asc ? res : -res;
     }
 
-    public Map<String, Object> getSystemStatistics() throws SQLException {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalPatients", patientDAO.getTotalPatientCount());
-        stats.put("totalDoctors", doctorDAO.getAllDoctors().size());
-        stats.put("totalAppointments", appointmentDAO.getAllAppointments().size());
-        stats.put("totalInventory", inventoryDAO.getAllInventory().size());
-        stats.put("lowStockItems", inventoryDAO.getLowStockItems(10).size());
-        return stats;
+    /** The counters last loaded, without a query; null if none have been. */
+    static Map<String, Object> getCachedStatistics() {
+        StatsSnapshot snapshot = statsSnapshot;
+        return snapshot == null ? null : new HashMap<>(snapshot.values);
+    }
+
+    /** Marks the dashboard counters as out of date after a write. */
+    public static void invalidateStatistics() {
+        statsInvalidated = true;
+    }
+
+    private StatsSnapshot reloadStatistics() throws SQLException {
+        // Clear the flag first so a write that lands during the query invalidates again
+        statsInvalidated = false;
+        Map<String, Object> values = statisticsDAO.getDashboardCounts(LOW_STOCK_THRESHOLD);
+        StatsSnapshot snapshot = new StatsSnapshot(values, System.currentTimeMillis());
+        statsSnapshot = snapshot;
+        return snapshot;
     }
 
     public Map<String, Long> getPerformanceMetrics() throws SQLException {
@@ -94,6 +122,14 @@ public class HospitalService {
         return metrics;
     }
 
+    public Map<String, Object> getConnectionPoolStatistics() {
+        return DatabaseConnection.getPoolStatistics();
+    }
+
+    public Map<String, Object> getMongoStatistics() {
+        return MongoDBConnection.getStatistics();
+    }
+
     public void addFeedback(PatientFeedback f) throws SQLException {
         f.setFeedbackDate(LocalDateTime.now());
         feedbackDAO.addFeedback(f);
@@ -104,27 +140,40 @@ public class HospitalService {
     }
 
     public List<MedicalInventory> getLowStockItems() throws SQLException {
-        return inventoryDAO.getLowStockItems(10);
+        return inventoryDAO.getLowStockItems(LOW_STOCK_THRESHOLD);
     }
 
     // Department Methods
     public List<Department> getAllDepartments() throws SQLException {
-        return departmentDAO.getAllDepartments();
+        return ReferenceData.getDepartments();
     }
 
     public void addDepartment(Department d) throws SQLException {
         departmentDAO.addDepartment(d);
+        ChangeBus.publish(EntityChange.created(Department.class, d.getId(), d));
     }
 
     public void updateDepartment(Department d) throws SQLException {
         departmentDAO.updateDepartment(d);
+        ChangeBus.publish(EntityChange.updated(Department.class, d.getId(), d));
     }
 
     public void deleteDepartment(int id) throws SQLException {
         departmentDAO.deleteDepartment(id);
+        ChangeBus.publish(EntityChange.deleted(Department.class, id));
     }
 
     public Department getDepartment(int id) throws SQLException {
         return departmentDAO.getDepartment(id);
     }
-}
\ No newline at end of file
+
+    private static final class StatsSnapshot {
+        final Map<String, Object> values;
+        final long loadedAt;
+
+        StatsSnapshot(Map<String, Object> values, long loadedAt) {
+            this.values = values;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
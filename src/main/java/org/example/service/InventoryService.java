@@ -0,0 +1,34 @@
+package org.example.service;
+
+import org.example.dao.MedicalInventoryDAO;
+import org.example.model.MedicalInventory;
+
+import java.sql.SQLException;
+import java.util.List;
+
+public class InventoryService {
+    private final MedicalInventoryDAO inventoryDAO = new MedicalInventoryDAO();
+
+    public List<MedicalInventory> getAllInventory() throws SQLException {
+        return ReferenceData.getInventory();
+    }
+
+    public void addInventoryItem(MedicalInventory item) throws SQLException {
+        inventoryDAO.addInventoryItem(item);
+        ChangeBus.publish(EntityChange.created(MedicalInventory.class, item.getId(), item));
+    }
+
+    public void updateInventoryQuantity(int itemId, int newQuantity) throws SQLException {
+        inventoryDAO.updateInventoryQuantity(itemId, newQuantity);
+        // Re-read so listeners get the name and unit along with the new quantity
+        MedicalInventory saved = inventoryDAO.getInventoryItem(itemId);
+        if (saved != null) {
+            ChangeBus.publish(EntityChange.updated(MedicalInventory.class, itemId, saved));
+        }
+    }
+
+    public void deleteInventoryItem(int id) throws SQLException {
+        inventoryDAO.deleteInventoryItem(id);
+        ChangeBus.publish(EntityChange.deleted(MedicalInventory.class, id));
+    }
+}
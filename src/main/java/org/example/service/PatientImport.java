@@ -0,0 +1,392 @@
+package org.example.service;
+
+import org.bson.BsonType;
+import org.bson.json.JsonReader;
+import org.example.dao.PatientDAO;
+import org.example.model.Patient;
+import org.example.util.ValidationUtils;
+import org.example.validation.PatientValidator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Streams patients from a CSV or JSON file into the database in batches.
+ *
+ * CSV files need a header row; JSON files hold an array of objects. Field
+ * names are matched without case or underscores, so both {@code first_name}
+ * and {@code firstName} work. Each record is validated like the add-patient
+ * form. Records that fail, or whose email is already taken, are written to
+ * a rejected-rows report instead of stopping the import.
+ */
+public class PatientImport {
+    private final PatientDAO patientDAO;
+    private final int batchSize;
+    private final Consumer<List<Patient>> onBatchImported;
+    private final PatientValidator validator = new PatientValidator();
+
+    private final List<Patient> batch = new ArrayList<>();
+    private final List<Record> batchRecords = new ArrayList<>();
+    private final Set<String> seenEmails = new HashSet<>();
+    private BufferedWriter report;
+    private Result result;
+
+    PatientImport(PatientDAO patientDAO, int batchSize, Consumer<List<Patient>> onBatchImported) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, got " + batchSize);
+        }
+        this.patientDAO = patientDAO;
+        this.batchSize = batchSize;
+        this.onBatchImported = onBatchImported;
+    }
+
+    /**
+     * Imports {@code source} and writes rejected records to {@code rejectReport}
+     * (created only if something is rejected). Batches already committed stay
+     * committed if a later one fails with an I/O or database error.
+     */
+    Result run(Path source, Path rejectReport) throws IOException, SQLException {
+        result = new Result(rejectReport);
+        long start = System.currentTimeMillis();
+        try (BufferedReader in = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            Iterator<Record> records = source.getFileName().toString().toLowerCase().endsWith(".json")
+                    ? new JsonRecords(in)
+                    : new CsvRecords(in);
+            while (records.hasNext()) {
+                accept(records.next());
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+            }
+            flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (report != null) {
+                report.close();
+            }
+            result.elapsedMs = System.currentTimeMillis() - start;
+        }
+        return result;
+    }
+
+    private void accept(Record record) throws IOException {
+        result.read++;
+        String firstName = record.get("firstname");
+        String lastName = record.get("lastname");
+        String dob = record.get("dateofbirth");
+        String address = record.get("address");
+        String phone = record.get("phone");
+        String email = record.get("email");
+
+        List<String> errors = validator.validate(firstName, lastName, phone, email, address, null);
+        if (!ValidationUtils.isValidDate(dob)) {
+            errors.add(ValidationUtils.getDateErrorMessage());
+        }
+        if (errors.isEmpty() && email != null && !seenEmails.add(email.toLowerCase())) {
+            errors.add("Email appears earlier in the file.");
+        }
+        if (!errors.isEmpty()) {
+            reject(record, String.join(" ", errors));
+            return;
+        }
+        batch.add(new Patient(0, firstName.trim(), lastName.trim(), LocalDate.parse(dob), address, phone, email));
+        batchRecords.add(record);
+    }
+
+    private void flush() throws IOException, SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // One lookup per batch instead of one per row
+        List<String> emails = new ArrayList<>();
+        for (Patient p : batch) {
+            if (p.getEmail() != null) {
+                emails.add(p.getEmail());
+            }
+        }
+        Set<String> taken = patientDAO.findExistingEmails(emails);
+        List<Patient> toInsert = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Patient p = batch.get(i);
+            if (p.getEmail() != null && taken.contains(p.getEmail().toLowerCase())) {
+                reject(batchRecords.get(i), "Email already exists.");
+            } else {
+                toInsert.add(p);
+            }
+        }
+
+        try {
+            patientDAO.addPatientsBatch(toInsert);
+            imported(toInsert);
+        } catch (SQLException e) {
+            // The batch was rolled back; insert row by row to find the offending records
+            System.err.println("Patient import batch failed, retrying rows one at a time: " + e.getMessage());
+            List<Patient> inserted = new ArrayList<>();
+            for (Patient p : toInsert) {
+                try {
+                    patientDAO.addPatient(p);
+                    inserted.add(p);
+                } catch (SQLException rowError) {
+                    reject(batchRecords.get(batch.indexOf(p)), "Database error: " + rowError.getMessage());
+                }
+            }
+            imported(inserted);
+        }
+        result.batches++;
+        batch.clear();
+        batchRecords.clear();
+    }
+
+    private void imported(List<Patient> patients) {
+        result.imported += patients.size();
+        if (!patients.isEmpty() && onBatchImported != null) {
+            onBatchImported.accept(patients);
+        }
+    }
+
+    private void reject(Record record, String reason) throws IOException {
+        result.rejected++;
+        if (report == null) {
+            report = Files.newBufferedWriter(result.rejectReport, StandardCharsets.UTF_8);
+            report.write("record,reason,data");
+            report.newLine();
+        }
+        report.write(record.number + "," + csvQuote(reason) + "," + csvQuote(record.raw));
+        report.newLine();
+    }
+
+    private static String csvQuote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String normalize(String fieldName) {
+        return fieldName.replace("_", "").replace(" ", "").toLowerCase();
+    }
+
+    /** Outcome of an import; {@code rejectReport} exists only when {@code rejected > 0}. */
+    public static final class Result {
+        private final Path rejectReport;
+        private long read;
+        private long imported;
+        private long rejected;
+        private long batches;
+        private long elapsedMs;
+
+        private Result(Path rejectReport) {
+            this.rejectReport = rejectReport;
+        }
+
+        public Path getRejectReport() { return rejectReport; }
+        public long getRead() { return read; }
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+        public long getBatches() { return batches; }
+        public long getElapsedMs() { return elapsedMs; }
+    }
+
+    private static final class Record {
+        final long number;
+        final Map<String, String> values;
+        final String raw;
+
+        Record(long number, Map<String, String> values, String raw) {
+            this.number = number;
+            this.values = values;
+            this.raw = raw;
+        }
+
+        String get(String field) {
+            String value = values.get(field);
+            return value == null || value.trim().isEmpty() ? null : value.trim();
+        }
+    }
+
+    /** RFC 4180 style: quoted fields may contain commas, doubled quotes and line breaks. */
+    private static final class CsvRecords implements Iterator<Record> {
+        private final BufferedReader in;
+        private final String[] header;
+        private long lineNumber = 0;
+        private long rowStartLine = 0;
+        private Record next;
+
+        CsvRecords(BufferedReader in) throws IOException {
+            this.in = in;
+            List<String> names = readRow(new StringBuilder());
+            if (names == null) {
+                throw new IOException("CSV file is empty");
+            }
+            header = new String[names.size()];
+            for (int i = 0; i < header.length; i++) {
+                header[i] = normalize(names.get(i).replace("\uFEFF", ""));
+            }
+            if (!Arrays.asList(header).containsAll(Arrays.asList("firstname", "lastname", "dateofbirth"))) {
+                throw new IOException("CSV header must name at least first_name, last_name and date_of_birth; got "
+                        + names);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            try {
+                StringBuilder raw = new StringBuilder();
+                List<String> row;
+                do {
+                    row = readRow(raw);
+                } while (row != null && row.size() == 1 && row.get(0).isEmpty()); // skip blank lines
+                if (row == null) {
+                    return false;
+                }
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < header.length && i < row.size(); i++) {
+                    values.put(header[i], row.get(i));
+                }
+                next = new Record(rowStartLine, values, raw.toString());
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Record r = next;
+            next = null;
+            return r;
+        }
+
+        private List<String> readRow(StringBuilder raw) throws IOException {
+            raw.setLength(0);
+            String line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            // Report the record by the line it started on
+            rowStartLine = lineNumber;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                raw.append(line);
+                for (int i = 0; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (quoted) {
+                        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else if (c == '"') {
+                            quoted = false;
+                        } else {
+                            field.append(c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (!quoted) {
+                    break;
+                }
+                line = in.readLine();
+                if (line == null) {
+                    throw new IOException("Unterminated quoted field starting on line " + rowStartLine);
+                }
+                lineNumber++;
+                field.append('\n');
+                raw.append('\n');
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /** Reads a top-level JSON array one object at a time with the BSON streaming reader. */
+    private static final class JsonRecords implements Iterator<Record> {
+        private final JsonReader reader;
+        private long index = 0;
+        private boolean done = false;
+        private Record next;
+
+        JsonRecords(BufferedReader in) {
+            this.reader = new JsonReader(in);
+            reader.readStartArray();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (done) {
+                return false;
+            }
+            if (reader.readBsonType() == BsonType.END_OF_DOCUMENT) {
+                reader.readEndArray();
+                done = true;
+                return false;
+            }
+            index++;
+            Map<String, String> values = new HashMap<>();
+            Map<String, String> original = new LinkedHashMap<>();
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                String name = reader.readName();
+                String value = readScalar();
+                original.put(name, value);
+                values.put(normalize(name), value);
+            }
+            reader.readEndDocument();
+            next = new Record(index, values, original.toString());
+            return true;
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Record r = next;
+            next = null;
+            return r;
+        }
+
+        private String readScalar() {
+            switch (reader.getCurrentBsonType()) {
+                case STRING:
+                    return reader.readString();
+                case INT32:
+                    return String.valueOf(reader.readInt32());
+                case INT64:
+                    return String.valueOf(reader.readInt64());
+                case DOUBLE:
+                    return String.valueOf(reader.readDouble());
+                case NULL:
+                    reader.readNull();
+                    return null;
+                default:
+                    reader.skipValue();
+                    return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package org.example.service;
+
+import org.example.model.Patient;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over patient names, emails and phone numbers.
+ *
+ * Each query term matches indexed tokens exactly, by prefix, or with one typo
+ * (insert, delete, substitute or swap). Typo matches use the symmetric-delete
+ * approach: every token is also stored under each of its single-character
+ * deletions, so a lookup is a handful of hash probes instead of a scan.
+ * Results contain patients that match every query term, best matches first.
+ */
+public class PatientSearchIndex {
+
+    private static final double EXACT_SCORE = 3.0;
+    private static final double PREFIX_SCORE = 2.0;
+    private static final double TYPO_SCORE = 1.0;
+    // Shorter terms produce too many accidental one-edit matches
+    private static final int MIN_TYPO_LENGTH = 4;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Patient> patients = new HashMap<>();
+    private final Map<Integer, Set<String>> tokensByPatient = new HashMap<>();
+    // Sorted so a prefix lookup is a range scan
+    private final TreeMap<String, Set<Integer>> postings = new TreeMap<>();
+    // Single-deletion variant -> indexed tokens that produce it
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+
+    private volatile boolean ready = false;
+    private boolean building = false;
+    private final Set<Integer> touchedDuringBuild = new HashSet<>();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Marks the start of a bulk load. Changes made through {@link #put} and
+     * {@link #remove} while loading take precedence over rows from the load.
+     */
+    public boolean beginBuild() {
+        lock.writeLock().lock();
+        try {
+            if (ready || building) {
+                return false;
+            }
+            building = true;
+            touchedDuringBuild.clear();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void load(Patient patient) {
+        lock.writeLock().lock();
+        try {
+            if (!touchedDuringBuild.contains(patient.getId())) {
+                unindex(patient.getId());
+                index(patient);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishBuild(boolean success) {
+        lock.writeLock().lock();
+        try {
+            building = false;
+            touchedDuringBuild.clear();
+            if (success) {
+                ready = true;
+            } else {
+                clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Patient patient) {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                touchedDuringBuild.add(patient.getId());
+            }
+            unindex(patient.getId());
+            index(patient);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int patientId) {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                touchedDuringBuild.add(patientId);
+            }
+            unindex(patientId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return patients.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Patient> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (String term : terms) {
+                Map<Integer, Double> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Every term has to match
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Integer, Double> e : scores.entrySet()) {
+                        e.setValue(e.getValue() + termScores.get(e.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+
+            List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                    .thenComparing(e -> patients.get(e.getKey()).getLastName(), String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(e -> patients.get(e.getKey()).getFirstName(), String.CASE_INSENSITIVE_ORDER));
+
+            List<Patient> result = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                result.add(patients.get(ranked.get(i).getKey()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Double> scoreTerm(String term) {
+        Map<Integer, Double> scores = new HashMap<>();
+
+        // Exact and prefix matches
+        for (Map.Entry<String, Set<Integer>> e : postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                .entrySet()) {
+            double score = e.getKey().equals(term) ? EXACT_SCORE : PREFIX_SCORE;
+            for (Integer id : e.getValue()) {
+                scores.merge(id, score, Math::max);
+            }
+        }
+
+        // One-typo matches
+        if (term.length() >= MIN_TYPO_LENGTH) {
+            for (String token : typoCandidates(term)) {
+                for (Integer id : postings.getOrDefault(token, Collections.emptySet())) {
+                    scores.merge(id, TYPO_SCORE, Math::max);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private Set<String> typoCandidates(String term) {
+        Set<String> candidates = new HashSet<>();
+        Set<String> probes = deletionsOf(term);
+        probes.add(term);
+        for (String probe : probes) {
+            candidates.addAll(deletions.getOrDefault(probe, Collections.emptySet()));
+            if (postings.containsKey(probe)) {
+                candidates.add(probe);
+            }
+        }
+        candidates.removeIf(token -> token.equals(term) || !withinOneEdit(term, token));
+        return candidates;
+    }
+
+    private void index(Patient patient) {
+        Set<String> tokens = tokensOf(patient);
+        patients.put(patient.getId(), patient);
+        tokensByPatient.put(patient.getId(), tokens);
+        for (String token : tokens) {
+            Set<Integer> ids = postings.computeIfAbsent(token, k -> new HashSet<>());
+            if (ids.isEmpty() && token.length() >= MIN_TYPO_LENGTH) {
+                for (String deletion : deletionsOf(token)) {
+                    deletions.computeIfAbsent(deletion, k -> new HashSet<>()).add(token);
+                }
+            }
+            ids.add(patient.getId());
+        }
+    }
+
+    private void unindex(int patientId) {
+        patients.remove(patientId);
+        Set<String> tokens = tokensByPatient.remove(patientId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<Integer> ids = postings.get(token);
+            if (ids == null) {
+                continue;
+            }
+            ids.remove(patientId);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+                for (String deletion : deletionsOf(token)) {
+                    Set<String> owners = deletions.get(deletion);
+                    if (owners != null) {
+                        owners.remove(token);
+                        if (owners.isEmpty()) {
+                            deletions.remove(deletion);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void clear() {
+        patients.clear();
+        tokensByPatient.clear();
+        postings.clear();
+        deletions.clear();
+    }
+
+    private static Set<String> tokensOf(Patient patient) {
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(tokenize(patient.getFirstName()));
+        tokens.addAll(tokenize(patient.getLastName()));
+        String email = patient.getEmail();
+        if (email != null && !email.isBlank()) {
+            String normalized = email.trim().toLowerCase(Locale.ROOT);
+            tokens.add(normalized);
+            tokens.addAll(tokenize(normalized));
+        }
+        String phone = patient.getPhone();
+        if (phone != null) {
+            String digits = phone.replaceAll("\\D", "");
+            if (!digits.isEmpty()) {
+                tokens.add(digits);
+            }
+        }
+        return tokens;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String part : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!part.isEmpty()) {
+                tokens.add(part);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> deletionsOf(String token) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < token.length(); i++) {
+            result.add(token.substring(0, i) + token.substring(i + 1));
+        }
+        return result;
+    }
+
+    // Optimal string alignment distance <= 1
+    private static boolean withinOneEdit(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < la && i < lb && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (la == lb) {
+            if (i == la) {
+                return true;
+            }
+            // Substitution or adjacent swap
+            if (a.substring(i + 1).equals(b.substring(i + 1))) {
+                return true;
+            }
+            return i + 1 < la && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                    && a.substring(i + 2).equals(b.substring(i + 2));
+        }
+        return la > lb ? a.substring(i + 1).equals(b.substring(i)) : a.substring(i).equals(b.substring(i + 1));
+    }
+}
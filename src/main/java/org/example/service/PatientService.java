@@ -2,75 +2,220 @@ package org.example.service;
 
 import org.example.dao.PatientDAO;
 import org.example.model.Patient;
+import org.example.util.EnvLoader;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.*;
 
 public class PatientService {
+    private static final int SEARCH_RESULT_LIMIT = 200;
+    private static final int INDEX_BUILD_FETCH_SIZE = 1000;
+    private static final int IMPORT_BATCH_SIZE = EnvLoader.getInt("PATIENT_IMPORT_BATCH_SIZE", 1000);
+
+    // Shared by every PatientService instance so each controller sees the same index
+    private static final PatientSearchIndex searchIndex = new PatientSearchIndex();
+
+    // Shared and thread-safe: controllers call in from background tasks
+    private static final Cache<String, Patient> patientCache = CacheRegistry.create("patients.byEmail",
+            Cache.EvictionPolicy.LRU);
+    // Backs the id lookups that label rows of other tables, e.g. medical logs
+    private static final Cache<Integer, Patient> patientByIdCache = CacheRegistry.create("patients.byId",
+            Cache.EvictionPolicy.LRU);
+    private static volatile List<Patient> patientListCache = new ArrayList<>();
+
+    static {
+        CacheRegistry.register("patients.all", () -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("size", patientListCache.size());
+            return stats;
+        }, () -> patientListCache = new ArrayList<>());
+        ChangeBus.subscribe(Patient.class, PatientService::applyChange);
+    }
+
     private PatientDAO patientDAO = new PatientDAO();
-    private Map<String, Patient> patientCache = new HashMap<>();
-    private List<Patient> patientListCache = new ArrayList<>();
 
     public void addPatient(Patient patient) throws SQLException {
         patientDAO.addPatient(patient);
-        invalidateCache();
+        ChangeBus.publish(EntityChange.created(Patient.class, patient.getId(), patient));
+    }
+
+    /**
+     * Bulk-loads patients from a CSV or JSON file in batches of
+     * PATIENT_IMPORT_BATCH_SIZE rows. Rejected rows go to {@code rejectReport}.
+     */
+    public PatientImport.Result importPatients(Path source, Path rejectReport) throws IOException, SQLException {
+        return importPatients(source, rejectReport, IMPORT_BATCH_SIZE);
+    }
+
+    public PatientImport.Result importPatients(Path source, Path rejectReport, int batchSize)
+            throws IOException, SQLException {
+        return new PatientImport(patientDAO, batchSize, batch -> {
+            for (Patient p : batch) {
+                ChangeBus.publish(EntityChange.created(Patient.class, p.getId(), p));
+            }
+        }).run(source, rejectReport);
     }
 
     public Patient getPatient(String email) throws SQLException {
-        if (patientCache.containsKey(email)) {
-            return patientCache.get(email);
-        }
-        Patient patient = patientDAO.getPatient(email);
-        if (patient != null) {
-            patientCache.put(email, patient);
-        }
-        return patient;
+        return patientCache.getOrLoad(email, patientDAO::getPatient);
     }
 
     public Patient getPatientById(int id) throws SQLException {
+        Patient cached = patientByIdCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
         Patient patient = patientDAO.getPatientById(id);
         if (patient != null) {
-            patientCache.put(patient.getEmail(), patient);
+            remember(patient);
         }
         return patient;
     }
 
+    /**
+     * Resolves many ids at once: cached patients are served from memory and
+     * the rest are fetched with a single IN query, so labelling a page of
+     * rows costs at most one query however many rows it has. Unknown ids are
+     * left out of the result.
+     */
+    public Map<Integer, Patient> getPatientsByIds(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Patient> found = new HashMap<>();
+        Set<Integer> missing = new HashSet<>();
+        for (Integer id : ids) {
+            Patient cached = patientByIdCache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Patient patient : patientDAO.getPatientsByIds(missing).values()) {
+                remember(patient);
+                found.put(patient.getId(), patient);
+            }
+        }
+        return found;
+    }
+
+    private static void remember(Patient patient) {
+        patientCache.put(patient.getEmail(), patient);
+        patientByIdCache.put(patient.getId(), patient);
+    }
+
     public List<Patient> getAllPatients() throws SQLException {
-        if (!patientListCache.isEmpty()) {
-            return new ArrayList<>(patientListCache);
+        List<Patient> cached = patientListCache;
+        if (!cached.isEmpty()) {
+            return new ArrayList<>(cached);
         }
-        patientListCache = patientDAO.getAllPatients();
-        for (Patient p : patientListCache) {
+        // Not copied into the bounded by-email cache: on a large table that would only churn it
+        List<Patient> loaded = patientDAO.getAllPatients();
+        patientListCache = loaded;
+        return new ArrayList<>(loaded);
+    }
+
+    public List<Patient> getPatientsPage(int afterId, int limit) throws SQLException {
+        List<Patient> page = patientDAO.getPatientsPage(afterId, limit);
+        for (Patient p : page) {
             patientCache.put(p.getEmail(), p);
         }
-        return new ArrayList<>(patientListCache);
+        return page;
     }
 
     public void updatePatient(Patient patient, String originalEmail) throws SQLException {
         patientDAO.updatePatient(patient, originalEmail);
-        invalidateCache();
+        // Changes carry no old email, so that key is dropped here
+        patientCache.remove(originalEmail);
+        Patient saved = patient.getId() > 0 ? patient : patientDAO.getPatient(patient.getEmail());
+        if (saved != null) {
+            ChangeBus.publish(EntityChange.updated(Patient.class, saved.getId(), saved));
+        }
     }
 
     public void deletePatient(int id) throws SQLException {
         patientDAO.deletePatient(id);
-        invalidateCache();
+        ChangeBus.publish(EntityChange.deleted(Patient.class, id));
     }
 
-    public List<Patient> searchPatients(String name) throws SQLException {
-        List<Patient> all = getAllPatients();
-        List<Patient> result = new ArrayList<>();
-        for (Patient p : all) {
-            if ((p.getFirstName() + " " + p.getLastName()).toLowerCase().contains(name.toLowerCase())) {
-                result.add(p);
+    // Patches every patient cache after a committed write
+    private static synchronized void applyChange(EntityChange<Patient> change) {
+        int id = change.getId();
+        Patient patient = change.getEntity();
+        switch (change.getType()) {
+            case CREATED -> {
+                searchIndex.put(patient);
+                // Appending would copy the whole list for every row of an import
+                patientListCache = new ArrayList<>();
+            }
+            case UPDATED -> {
+                patientCache.removeIf(p -> p.getId() == id);
+                remember(patient);
+                searchIndex.put(patient);
+                patientListCache = patched(patientListCache, id, patient);
+            }
+            case DELETED -> {
+                patientCache.removeIf(p -> p.getId() == id);
+                patientByIdCache.remove(id);
+                searchIndex.remove(id);
+                patientListCache = patched(patientListCache, id, null);
+            }
+        }
+    }
+
+    // Copy of the list with patient {@code id} replaced, or removed when {@code replacement} is null
+    private static List<Patient> patched(List<Patient> list, int id, Patient replacement) {
+        if (list.isEmpty()) {
+            return list;
+        }
+        List<Patient> copy = new ArrayList<>(list.size());
+        for (Patient p : list) {
+            if (p.getId() != id) {
+                copy.add(p);
+            } else if (replacement != null) {
+                copy.add(replacement);
             }
         }
-        // Sort by name
-        result.sort(Comparator.comparing(Patient::getFirstName).thenComparing(Patient::getLastName));
-        return result;
+        return copy;
+    }
+
+    /**
+     * Ranked search by name, email or phone with prefix and single-typo
+     * matching. Served from the in-memory index once it has been built; until
+     * then the query goes to MySQL FULLTEXT while the index loads in the
+     * background.
+     */
+    public List<Patient> searchPatients(String name) throws SQLException {
+        if (searchIndex.isReady()) {
+            return searchIndex.search(name, SEARCH_RESULT_LIMIT);
+        }
+        warmUpSearchIndex();
+        try {
+            return patientDAO.searchPatientsFullText(name);
+        } catch (SQLException e) {
+            // FULLTEXT index missing (schema not updated yet); use the plain LIKE query
+            System.err.println("FULLTEXT patient search failed, falling back to LIKE: " + e.getMessage());
+            return patientDAO.searchPatients(name);
+        }
     }
 
-    private void invalidateCache() {
-        patientCache.clear();
-        patientListCache.clear();
+    public static void warmUpSearchIndex() {
+        if (!searchIndex.beginBuild()) {
+            return;
+        }
+        Thread builder = new Thread(() -> {
+            boolean success = false;
+            try (PatientDAO.PatientCursor cursor = new PatientDAO().streamPatients(INDEX_BUILD_FETCH_SIZE)) {
+                cursor.forEachRemaining(searchIndex::load);
+                success = true;
+            } catch (Exception e) {
+                System.err.println("Failed to build patient search index: " + e.getMessage());
+            } finally {
+                searchIndex.finishBuild(success);
+            }
+        }, "patient-search-index");
+        builder.setDaemon(true);
+        builder.start();
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package org.example.service;
+
+import org.example.model.Patient;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.*;
+
+/**
+ * Sorts patients on one or more fields.
+ *
+ * Sort keys are computed once per patient before sorting (a collation key for
+ * the name, the id and the date of birth as an epoch day), so comparisons only
+ * compare precomputed values and allocate nothing. Small inputs use the stable
+ * TimSort in {@link Arrays#sort}; large ones use {@link Arrays#parallelSort},
+ * a stable parallel merge sort. Neither recurses on the input size.
+ */
+public class PatientSorter {
+
+    public enum SortField {
+        NAME, ID, DATE_OF_BIRTH;
+
+        public static SortField from(String name) {
+            switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "name":
+                    return NAME;
+                case "dob":
+                case "date_of_birth":
+                case "dateofbirth":
+                    return DATE_OF_BIRTH;
+                case "id":
+                default:
+                    return ID;
+            }
+        }
+    }
+
+    private static final int PARALLEL_THRESHOLD = 50_000;
+
+    private final List<SortField> fields;
+    private final boolean ascending;
+    private final Comparator<SortKey> comparator;
+
+    public PatientSorter(List<SortField> fields, boolean ascending) {
+        this.fields = fields.isEmpty() ? List.of(SortField.ID) : List.copyOf(fields);
+        this.ascending = ascending;
+        this.comparator = buildComparator();
+    }
+
+    /**
+     * Parses a comma-separated field list such as {@code "name,dob"}. The id is
+     * always appended as a final tie-breaker so the order is deterministic.
+     */
+    public static PatientSorter of(String fieldSpec, boolean ascending) {
+        List<SortField> fields = new ArrayList<>();
+        if (fieldSpec != null) {
+            for (String part : fieldSpec.split(",")) {
+                if (!part.isBlank()) {
+                    SortField field = SortField.from(part);
+                    if (!fields.contains(field)) {
+                        fields.add(field);
+                    }
+                }
+            }
+        }
+        if (!fields.contains(SortField.ID)) {
+            fields.add(SortField.ID);
+        }
+        return new PatientSorter(fields, ascending);
+    }
+
+    public List<Patient> sort(List<Patient> patients) {
+        int n = patients.size();
+        if (n < 2) {
+            return new ArrayList<>(patients);
+        }
+
+        // Collator instances are not thread-safe, so each sort gets its own copy
+        Collator collator = fields.contains(SortField.NAME) ? newCollator() : null;
+        SortKey[] keys = new SortKey[n];
+        int i = 0;
+        for (Patient p : patients) {
+            keys[i++] = new SortKey(p, collator);
+        }
+
+        if (n >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(keys, comparator);
+        } else {
+            Arrays.sort(keys, comparator);
+        }
+
+        List<Patient> sorted = new ArrayList<>(n);
+        for (SortKey key : keys) {
+            sorted.add(key.patient);
+        }
+        return sorted;
+    }
+
+    private Comparator<SortKey> buildComparator() {
+        Comparator<SortKey> result = null;
+        for (SortField field : fields) {
+            Comparator<SortKey> next;
+            switch (field) {
+                case NAME:
+                    next = (a, b) -> a.nameKey.compareTo(b.nameKey);
+                    break;
+                case DATE_OF_BIRTH:
+                    next = Comparator.comparingLong(k -> k.birthDay);
+                    break;
+                case ID:
+                default:
+                    next = Comparator.comparingInt(k -> k.id);
+                    break;
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+        return ascending ? result : result.reversed();
+    }
+
+    private static Collator newCollator() {
+        Collator collator = Collator.getInstance(Locale.getDefault());
+        // Ignore case but keep accents significant
+        collator.setStrength(Collator.SECONDARY);
+        return collator;
+    }
+
+    private static final class SortKey {
+        final Patient patient;
+        final CollationKey nameKey;
+        final int id;
+        final long birthDay;
+
+        SortKey(Patient patient, Collator collator) {
+            this.patient = patient;
+            this.nameKey = collator != null
+                    ? collator.getCollationKey(nullToEmpty(patient.getFirstName()) + " "
+                            + nullToEmpty(patient.getLastName()))
+                    : null;
+            this.id = patient.getId();
+            // Missing dates sort after every real one
+            this.birthDay = patient.getDateOfBirth() != null ? patient.getDateOfBirth().toEpochDay() : Long.MAX_VALUE;
+        }
+
+        private static String nullToEmpty(String s) {
+            return s != null ? s : "";
+        }
+    }
+}
@@ -1,52 +1,77 @@
 package org.example.service;
 
 import org.example.dao.PrescriptionDAO;
+import org.example.dao.PrescriptionFilter;
+import org.example.model.Doctor;
+import org.example.model.Patient;
 import org.example.model.Prescription;
 import org.example.model.PrescriptionItem;
 import java.sql.SQLException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class PrescriptionService {
-    private PrescriptionDAO prescriptionDAO = new PrescriptionDAO();
+    private static final int TOP_MEDICATIONS = 10;
+
+    private static final Cache<Integer, Prescription> prescriptionCache = CacheRegistry.create("prescriptions.byId",
+            Cache.EvictionPolicy.LRU);
+    // Item lists are re-opened repeatedly for the same few prescriptions, so keep the most used ones
+    private static final Cache<Integer, List<PrescriptionItem>> prescriptionItemsCache = CacheRegistry.create(
+            "prescriptions.items", Cache.EvictionPolicy.LFU);
+
+    static {
+        ChangeBus.subscribe(Prescription.class, change -> {
+            if (change.getType() != EntityChange.Type.CREATED) {
+                evict(change.getId());
+            }
+        });
+        // Their prescriptions go with them via ON DELETE CASCADE; after a rename they are
+        // re-read so the joined names are current
+        ChangeBus.subscribe(Patient.class, change -> {
+            if (change.getType() != EntityChange.Type.CREATED) {
+                prescriptionCache.removeIf(p -> p.getPatientId() == change.getId());
+            }
+        });
+        ChangeBus.subscribe(Doctor.class, change -> {
+            if (change.getType() != EntityChange.Type.CREATED) {
+                prescriptionCache.removeIf(p -> p.getDoctorId() == change.getId());
+            }
+        });
+    }
 
-    // Caching structures
-    private Map<Integer, Prescription> prescriptionCache = new ConcurrentHashMap<>();
-    private Map<Integer, List<PrescriptionItem>> prescriptionItemsCache = new ConcurrentHashMap<>();
+    private PrescriptionDAO prescriptionDAO = new PrescriptionDAO();
 
     public void addPrescription(Prescription prescription, List<PrescriptionItem> items) throws SQLException {
         prescriptionDAO.addPrescriptionWithItems(prescription, items);
-        invalidateCache();
+        ChangeBus.publish(EntityChange.created(Prescription.class, prescription.getId(), prescription));
     }
 
     public void updatePrescription(Prescription prescription, List<PrescriptionItem> items) throws SQLException {
         prescriptionDAO.updatePrescriptionWithItems(prescription, items);
-        invalidateCache();
+        ChangeBus.publish(EntityChange.updated(Prescription.class, prescription.getId(), prescription));
     }
 
     public Prescription getPrescription(int id) throws SQLException {
-        if (prescriptionCache.containsKey(id)) {
-            return prescriptionCache.get(id);
-        }
-
-        Prescription prescription = prescriptionDAO.getPrescription(id);
-        if (prescription != null) {
-            prescriptionCache.put(id, prescription);
-        }
-        return prescription;
+        return prescriptionCache.getOrLoad(id, prescriptionDAO::getPrescription);
     }
 
     public List<Prescription> getPrescriptionsByPatient(int patientId) throws SQLException {
         return prescriptionDAO.getPrescriptionsByPatient(patientId);
     }
 
+    /** Next page of a patient's prescriptions, newest first; {@code after} is the last one shown or null. */
+    public List<Prescription> getPrescriptionsByPatient(int patientId, Prescription after, int limit)
+            throws SQLException {
+        return prescriptionDAO.getPrescriptionsByPatientPage(patientId, after, limit);
+    }
+
     public List<Prescription> getPrescriptionsByDoctor(int doctorId) throws SQLException {
         return prescriptionDAO.getPrescriptionsByDoctor(doctorId);
     }
 
     public List<PrescriptionItem> getPrescriptionItems(int prescriptionId) throws SQLException {
-        if (prescriptionItemsCache.containsKey(prescriptionId)) {
-            return new ArrayList<>(prescriptionItemsCache.get(prescriptionId));
+        List<PrescriptionItem> cached = prescriptionItemsCache.get(prescriptionId);
+        if (cached != null) {
+            return new ArrayList<>(cached);
         }
 
         List<PrescriptionItem> items = prescriptionDAO.getPrescriptionItems(prescriptionId);
@@ -54,36 +79,64 @@ public class PrescriptionService {
         return new ArrayList<>(items);
     }
 
-    public List<Prescription> getAllPrescriptions() throws SQLException {
-        List<Prescription> prescriptions = prescriptionDAO.getAllPrescriptions();
-
-        // Update cache
-        for (Prescription p : prescriptions) {
-            prescriptionCache.put(p.getId(), p);
+    /**
+     * Items for a whole listing, keyed by prescription id. Cached lists are
+     * served from {@code prescriptionItemsCache}; the rest are fetched in one
+     * bulk query and cached.
+     */
+    public Map<Integer, List<PrescriptionItem>> getPrescriptionItems(Collection<Integer> prescriptionIds)
+            throws SQLException {
+        Map<Integer, List<PrescriptionItem>> result = new LinkedHashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int id : prescriptionIds) {
+            List<PrescriptionItem> cached = prescriptionItemsCache.get(id);
+            if (cached != null) {
+                result.put(id, new ArrayList<>(cached));
+            } else {
+                result.put(id, null);
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            prescriptionDAO.getPrescriptionItems(missing).forEach((id, items) -> {
+                prescriptionItemsCache.put(id, new ArrayList<>(items));
+                result.put(id, items);
+            });
         }
+        return result;
+    }
 
-        return prescriptions;
+    public List<Prescription> getAllPrescriptions() throws SQLException {
+        // Not copied into the bounded cache: a full listing would only evict the hot entries
+        return prescriptionDAO.getAllPrescriptions();
     }
 
     public void deletePrescription(int id) throws SQLException {
         prescriptionDAO.deletePrescription(id);
-        invalidateCache();
+        ChangeBus.publish(EntityChange.deleted(Prescription.class, id));
     }
 
+    /** Keyset page of prescriptions matching {@code filter}, newest first; {@code after} is the last one shown. */
+    public List<Prescription> searchPrescriptions(PrescriptionFilter filter, Prescription after, int limit)
+            throws SQLException {
+        return prescriptionDAO.searchPrescriptions(filter, after, limit);
+    }
+
+    /** Totals, monthly counts and the most prescribed medications, all aggregated by MySQL. */
     public Map<String, Object> getPrescriptionStats() throws SQLException {
-        Map<String, Object> stats = new HashMap<>();
-        List<Prescription> allPrescriptions = getAllPrescriptions();
+        return getPrescriptionStats(new PrescriptionFilter());
+    }
 
-        stats.put("totalPrescriptions", allPrescriptions.size());
+    public Map<String, Object> getPrescriptionStats(PrescriptionFilter filter) throws SQLException {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalPrescriptions", prescriptionDAO.countPrescriptions(filter));
 
-        // Count by month
-        Map<String, Integer> prescriptionsByMonth = new TreeMap<>();
-        for (Prescription p : allPrescriptions) {
-            String monthKey = p.getPrescriptionDate().getMonth().toString() + " " +
-                    p.getPrescriptionDate().getYear();
-            prescriptionsByMonth.put(monthKey, prescriptionsByMonth.getOrDefault(monthKey, 0) + 1);
-        }
+        // Count by month, oldest first
+        Map<String, Integer> prescriptionsByMonth = new LinkedHashMap<>();
+        prescriptionDAO.countPrescriptionsByMonth(filter).forEach((month, count) -> prescriptionsByMonth
+                .put(month.getMonth().toString() + " " + month.getYear(), count));
         stats.put("prescriptionsByMonth", prescriptionsByMonth);
+        stats.put("topMedications", prescriptionDAO.countPrescriptionsByMedication(filter, TOP_MEDICATIONS));
 
         // Cache statistics
         stats.put("prescriptionCacheSize", prescriptionCache.size());
@@ -92,12 +145,13 @@ public class PrescriptionService {
         return stats;
     }
 
-    private void invalidateCache() {
-        prescriptionCache.clear();
-        prescriptionItemsCache.clear();
+    private static void evict(int id) {
+        prescriptionCache.remove(id);
+        prescriptionItemsCache.remove(id);
     }
 
     public void clearCache() {
-        invalidateCache();
+        prescriptionCache.clear();
+        prescriptionItemsCache.clear();
     }
 }
\ No newline at end of file
@@ -0,0 +1,315 @@
+package org.example.service;
+
+import org.example.dao.DepartmentDAO;
+import org.example.dao.DoctorDAO;
+import org.example.dao.MedicalInventoryDAO;
+import org.example.dao.StatisticsDAO;
+import org.example.model.Department;
+import org.example.model.Doctor;
+import org.example.model.MedicalInventory;
+import org.example.util.EnvLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Departments, doctors and the inventory catalogue held in memory, plus an
+ * optional warm-start file so the first screens after launch need no round
+ * trips.
+ *
+ * With REFERENCE_SNAPSHOT_FILE set, {@link #warmStart()} reads the file
+ * written by the previous run (see {@link ReferenceSnapshot}) and serves its
+ * rows and dashboard counters straight away. A background thread then
+ * compares each table with MySQL by row count and CRC32 fingerprint in one
+ * query, reloads only the tables that differ, and repeats every
+ * REFERENCE_SNAPSHOT_INTERVAL_MS so writes from other clients are picked up.
+ * The file is rewritten after a check that found changes, when local writes
+ * have patched the tables, and on {@link #shutdown()}.
+ *
+ * Without the setting nothing is held and every call reads MySQL as before.
+ */
+public final class ReferenceData {
+    private static final String SNAPSHOT_FILE = EnvLoader.get("REFERENCE_SNAPSHOT_FILE", "");
+    private static final long CHECK_INTERVAL_MS = EnvLoader.getLong("REFERENCE_SNAPSHOT_INTERVAL_MS", 60_000);
+
+    private static final Table<Department> departments = new Table<>("departments", Department::getId, null,
+            d -> rowChecksum(d.getId(), d.getName()));
+    private static final Table<Doctor> doctors = new Table<>("doctors", Doctor::getId, null,
+            d -> rowChecksum(d.getId(), d.getFirstName(), d.getLastName(), d.getSpecialty(), d.getDepartmentId(),
+                    d.getPhone(), d.getEmail()));
+    // Same order as MedicalInventoryDAO's ORDER BY item_name
+    private static final Table<MedicalInventory> inventory = new Table<>("medical_inventory",
+            MedicalInventory::getId,
+            Comparator.comparing(MedicalInventory::getItemName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+            m -> rowChecksum(m.getId(), m.getItemName(), m.getQuantity(), m.getUnit()));
+
+    private static final DepartmentDAO departmentDAO = new DepartmentDAO();
+    private static final DoctorDAO doctorDAO = new DoctorDAO();
+    private static final MedicalInventoryDAO inventoryDAO = new MedicalInventoryDAO();
+    private static final StatisticsDAO statisticsDAO = new StatisticsDAO();
+
+    private static final AtomicBoolean dirty = new AtomicBoolean(false);
+    private static final LongAdder tablesReloaded = new LongAdder();
+    private static final LongAdder checks = new LongAdder();
+    private static volatile Thread checker;
+    private static volatile long snapshotSavedAt = 0;
+    private static volatile long lastCheckMs = -1;
+
+    static {
+        ChangeBus.subscribe(Department.class, departments::apply);
+        ChangeBus.subscribe(Doctor.class, doctors::apply);
+        ChangeBus.subscribe(MedicalInventory.class, inventory::apply);
+        CacheRegistry.register("reference", ReferenceData::getStatistics, ReferenceData::clear);
+    }
+
+    private ReferenceData() {
+    }
+
+    private static boolean isEnabled() {
+        return !SNAPSHOT_FILE.isEmpty();
+    }
+
+    /** Loads the snapshot, if configured and readable, and starts the background check. */
+    public static void warmStart() {
+        if (!isEnabled() || checker != null) {
+            return;
+        }
+        ReferenceSnapshot snapshot = ReferenceSnapshot.read(Paths.get(SNAPSHOT_FILE));
+        if (snapshot != null) {
+            departments.load(snapshot.departments, departments.version());
+            doctors.load(snapshot.doctors, doctors.version());
+            inventory.load(snapshot.inventory, inventory.version());
+            // Served as stale, so the first dashboard shows these and refreshes behind them
+            HospitalService.seedStatistics(new HashMap<>(snapshot.dashboard), snapshot.savedAt);
+            snapshotSavedAt = snapshot.savedAt;
+            // Nothing to write back until the check or a local write changes something
+            dirty.set(false);
+        }
+        checker = Thread.ofVirtual().name("reference-check").start(ReferenceData::checkLoop);
+    }
+
+    /** Stops the background check and writes the snapshot for the next launch. */
+    public static void shutdown() {
+        Thread current = checker;
+        if (current == null) {
+            return;
+        }
+        checker = null;
+        current.interrupt();
+        save();
+    }
+
+    public static List<Department> getDepartments() throws SQLException {
+        return isEnabled() ? departments.getOrLoad(departmentDAO::getAllDepartments) : departmentDAO.getAllDepartments();
+    }
+
+    public static List<Doctor> getDoctors() throws SQLException {
+        return isEnabled() ? doctors.getOrLoad(doctorDAO::getAllDoctors) : doctorDAO.getAllDoctors();
+    }
+
+    public static List<MedicalInventory> getInventory() throws SQLException {
+        return isEnabled() ? inventory.getOrLoad(inventoryDAO::getAllInventory) : inventoryDAO.getAllInventory();
+    }
+
+    private static void checkLoop() {
+        while (checker == Thread.currentThread()) {
+            try {
+                check();
+                if (dirty.get()) {
+                    save();
+                }
+            } catch (SQLException e) {
+                System.err.println("Reference data check failed: " + e.getMessage());
+            }
+            if (CHECK_INTERVAL_MS <= 0) {
+                return;
+            }
+            try {
+                Thread.sleep(CHECK_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // One round trip for all three fingerprints; only tables that differ are read again
+    private static void check() throws SQLException {
+        long start = System.currentTimeMillis();
+        Map<String, Long> remote = statisticsDAO.getReferenceChecksums();
+        departments.reloadIfChanged(remote, departmentDAO::getAllDepartments);
+        doctors.reloadIfChanged(remote, doctorDAO::getAllDoctors);
+        inventory.reloadIfChanged(remote, inventoryDAO::getAllInventory);
+        checks.increment();
+        lastCheckMs = System.currentTimeMillis() - start;
+    }
+
+    private static synchronized void save() {
+        List<Department> d = departments.get();
+        List<Doctor> doc = doctors.get();
+        List<MedicalInventory> inv = inventory.get();
+        // Only whole tables are worth saving; a partial file would be reloaded anyway
+        if (d == null || doc == null || inv == null) {
+            return;
+        }
+        dirty.set(false);
+        Map<String, Integer> dashboard = new LinkedHashMap<>();
+        Map<String, Object> counters = HospitalService.getCachedStatistics();
+        if (counters != null) {
+            counters.forEach((key, value) -> {
+                if (value instanceof Integer count) {
+                    dashboard.put(key, count);
+                }
+            });
+        }
+        try {
+            new ReferenceSnapshot(System.currentTimeMillis(), dashboard, d, doc, inv).write(Paths.get(SNAPSHOT_FILE));
+        } catch (IOException e) {
+            dirty.set(true);
+            System.err.println("Failed to write reference snapshot " + SNAPSHOT_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /** CRC32 of the fields joined with '|', nulls as '' - the same as StatisticsDAO's SQL. */
+    private static long rowChecksum(Object... fields) {
+        StringBuilder row = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                row.append('|');
+            }
+            if (fields[i] != null) {
+                row.append(fields[i]);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(row.toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("snapshotSavedAt", snapshotSavedAt > 0 ? new Date(snapshotSavedAt).toString() : "none");
+        stats.put("departments", departments.size());
+        stats.put("doctors", doctors.size());
+        stats.put("inventory", inventory.size());
+        stats.put("checks", checks.sum());
+        stats.put("lastCheckMs", lastCheckMs);
+        stats.put("tablesReloaded", tablesReloaded.sum());
+        return stats;
+    }
+
+    private static void clear() {
+        departments.clear();
+        doctors.clear();
+        inventory.clear();
+        checks.reset();
+        tablesReloaded.reset();
+    }
+
+    @FunctionalInterface
+    private interface Loader<T> {
+        List<T> load() throws SQLException;
+    }
+
+    /**
+     * One table's rows, or null until loaded. The version counts changes so a
+     * load that raced a write is discarded rather than overwriting the patch.
+     */
+    private static final class Table<T> {
+        private final String name;
+        private final ToIntFunction<T> idOf;
+        private final Comparator<T> order;
+        private final Function<T, Long> checksumOf;
+        private List<T> rows;
+        private long version;
+
+        Table(String name, ToIntFunction<T> idOf, Comparator<T> order, Function<T, Long> checksumOf) {
+            this.name = name;
+            this.idOf = idOf;
+            this.order = order;
+            this.checksumOf = checksumOf;
+        }
+
+        synchronized List<T> get() {
+            return rows == null ? null : new ArrayList<>(rows);
+        }
+
+        synchronized long version() {
+            return version;
+        }
+
+        synchronized int size() {
+            return rows == null ? 0 : rows.size();
+        }
+
+        List<T> getOrLoad(Loader<T> loader) throws SQLException {
+            List<T> cached = get();
+            if (cached != null) {
+                return cached;
+            }
+            long seen = version();
+            List<T> loaded = loader.load();
+            load(loaded, seen);
+            return loaded;
+        }
+
+        synchronized void load(List<T> loaded, long seenVersion) {
+            if (version == seenVersion) {
+                rows = new ArrayList<>(loaded);
+                version++;
+                dirty.set(true);
+            }
+        }
+
+        void reloadIfChanged(Map<String, Long> remote, Loader<T> loader) throws SQLException {
+            long seen;
+            synchronized (this) {
+                Long expected = remote.get(name);
+                if (expected != null && rows != null && expected == checksum()) {
+                    return;
+                }
+                seen = version;
+            }
+            load(loader.load(), seen);
+            tablesReloaded.increment();
+        }
+
+        // Row count in the high 32 bits, XOR of the row CRCs in the low 32
+        private long checksum() {
+            long xor = 0;
+            for (T row : rows) {
+                xor ^= checksumOf.apply(row);
+            }
+            return (long) rows.size() << 32 | xor;
+        }
+
+        synchronized void apply(EntityChange<T> change) {
+            version++;
+            if (rows == null) {
+                return;
+            }
+            int id = change.getId();
+            rows.removeIf(row -> idOf.applyAsInt(row) == id);
+            if (change.getType() != EntityChange.Type.DELETED) {
+                rows.add(change.getEntity());
+                if (order != null) {
+                    rows.sort(order);
+                }
+            }
+            dirty.set(true);
+        }
+
+        synchronized void clear() {
+            rows = null;
+            version++;
+        }
+    }
+}
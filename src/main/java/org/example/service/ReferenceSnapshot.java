@@ -0,0 +1,171 @@
+package org.example.service;
+
+import org.example.model.Department;
+import org.example.model.Doctor;
+import org.example.model.MedicalInventory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * The on-disk form of {@link ReferenceData}: a small binary file that is
+ * read in one call and decoded in one pass at startup.
+ *
+ * Layout, big-endian: magic, format version, save time, then the dashboard
+ * counters, departments, doctors and inventory, each as a row count followed
+ * by the rows' fields in column order, and finally a CRC32 of everything
+ * before it. Strings are a byte length (-1 for null) and UTF-8 bytes. The
+ * file is written to a temporary name and moved into place, so a reader sees
+ * either the old or the new file; anything else (another format, a bad CRC)
+ * reads as no snapshot.
+ */
+final class ReferenceSnapshot {
+    private static final int MAGIC = 0x484D5352; // "HMSR"
+    private static final int FORMAT_VERSION = 1;
+    private static final int TRAILER_BYTES = Long.BYTES;
+
+    final long savedAt;
+    final Map<String, Integer> dashboard;
+    final List<Department> departments;
+    final List<Doctor> doctors;
+    final List<MedicalInventory> inventory;
+
+    ReferenceSnapshot(long savedAt, Map<String, Integer> dashboard, List<Department> departments,
+            List<Doctor> doctors, List<MedicalInventory> inventory) {
+        this.savedAt = savedAt;
+        this.dashboard = dashboard;
+        this.departments = departments;
+        this.doctors = doctors;
+        this.inventory = inventory;
+    }
+
+    /** The snapshot at {@code path}, or null if there is none or it cannot be used. */
+    static ReferenceSnapshot read(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            // Read onto the heap rather than mapped: a live mapping keeps the file locked on Windows
+            // until GC, and the next save's move over it would fail
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (buffer.limit() < 2 * Integer.BYTES + TRAILER_BYTES) {
+                throw new IOException("truncated");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, buffer.limit() - TRAILER_BYTES));
+            if (crc.getValue() != buffer.getLong(buffer.limit() - TRAILER_BYTES)) {
+                throw new IOException("checksum mismatch");
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("unknown format");
+            }
+            long savedAt = buffer.getLong();
+
+            int count = buffer.getInt();
+            Map<String, Integer> dashboard = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                dashboard.put(readString(buffer), buffer.getInt());
+            }
+
+            count = buffer.getInt();
+            List<Department> departments = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                departments.add(new Department(buffer.getInt(), readString(buffer)));
+            }
+
+            count = buffer.getInt();
+            List<Doctor> doctors = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                doctors.add(new Doctor(buffer.getInt(), readString(buffer), readString(buffer), readString(buffer),
+                        buffer.getInt(), readString(buffer), readString(buffer)));
+            }
+
+            count = buffer.getInt();
+            List<MedicalInventory> inventory = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                inventory.add(new MedicalInventory(buffer.getInt(), readString(buffer), buffer.getInt(),
+                        readString(buffer)));
+            }
+            return new ReferenceSnapshot(savedAt, dashboard, departments, doctors, inventory);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("Ignoring reference snapshot " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    void write(Path path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(savedAt);
+
+        out.writeInt(dashboard.size());
+        for (Map.Entry<String, Integer> e : dashboard.entrySet()) {
+            writeString(out, e.getKey());
+            out.writeInt(e.getValue());
+        }
+
+        out.writeInt(departments.size());
+        for (Department d : departments) {
+            out.writeInt(d.getId());
+            writeString(out, d.getName());
+        }
+
+        out.writeInt(doctors.size());
+        for (Doctor d : doctors) {
+            out.writeInt(d.getId());
+            writeString(out, d.getFirstName());
+            writeString(out, d.getLastName());
+            writeString(out, d.getSpecialty());
+            out.writeInt(d.getDepartmentId());
+            writeString(out, d.getPhone());
+            writeString(out, d.getEmail());
+        }
+
+        out.writeInt(inventory.size());
+        for (MedicalInventory m : inventory) {
+            out.writeInt(m.getId());
+            writeString(out, m.getItemName());
+            out.writeInt(m.getQuantity());
+            writeString(out, m.getUnit());
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+
+        Path absolute = path.toAbsolutePath();
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        Files.write(temp, bytes.toByteArray());
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+}
@@ -0,0 +1,463 @@
+package org.example.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded JDBC connection pool.
+ *
+ * Connections handed out by {@link #getConnection()} are proxies: calling
+ * {@code close()} returns the physical connection to the pool instead of
+ * closing it, so the DAOs can keep using try-with-resources unchanged.
+ */
+public class ConnectionPool {
+
+    // Connections returned more recently than this are not re-validated on borrow
+    private static final long VALIDATION_BYPASS_MS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final long leakThresholdMs;
+    // Stack traces cost a walk of the borrower's stack, so they are opt-in
+    private final boolean traceLeaks;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    // Guarded by lock; used as a stack so the warmest connection is reused first
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private int totalConnections = 0;
+    private int waiters = 0;
+    private boolean closed = false;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowWaitNanos = new LongAdder();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsEvicted = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+            long idleTimeoutMs, long borrowTimeoutMs, long leakThresholdMs, boolean traceLeaks,
+            int statementCacheSize) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.connectionProperties = new Properties();
+        if (user != null)
+            connectionProperties.setProperty("user", user);
+        if (password != null)
+            connectionProperties.setProperty("password", password);
+        if (statementCacheSize > 0) {
+            // Server-side prepares so a cached statement skips parsing on MySQL;
+            // the driver's own client-side cache would only duplicate ours
+            connectionProperties.setProperty("useServerPrepStmts", "true");
+            connectionProperties.setProperty("cachePrepStmts", "false");
+        }
+        // Lets setFetchSize() stream large result sets instead of buffering them whole
+        connectionProperties.setProperty("useCursorFetch", "true");
+        // Sends executeBatch() inserts as multi-row INSERT statements
+        connectionProperties.setProperty("rewriteBatchedStatements", "true");
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.traceLeaks = traceLeaks;
+        this.statementCacheSize = statementCacheSize;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(30_000, idleTimeoutMs / 2));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMs);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (candidate == null && !create) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate == null) {
+                        if (totalConnections < maxSize) {
+                            totalConnections++;
+                            create = true;
+                        } else {
+                            long remaining = deadline - System.nanoTime();
+                            if (remaining <= 0) {
+                                borrowTimeouts.increment();
+                                throw new SQLTimeoutException("Timed out after " + borrowTimeoutMs
+                                        + "ms waiting for a database connection (pool size " + maxSize + ")");
+                            }
+                            waiters++;
+                            try {
+                                available.awaitNanos(remaining);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new SQLException("Interrupted while waiting for a database connection", e);
+                            } finally {
+                                waiters--;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                candidate = openPhysical();
+            } else if (!isUsable(candidate)) {
+                discard(candidate);
+                continue;
+            }
+
+            long waited = System.nanoTime() - start;
+            borrowCount.increment();
+            borrowWaitNanos.add(waited);
+            return candidate.borrow(traceLeaks && leakThresholdMs > 0);
+        }
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, connectionProperties);
+            connectionsCreated.increment();
+            return new PooledConnection(physical);
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                totalConnections--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        if (System.currentTimeMillis() - pc.lastReturnedAt < VALIDATION_BYPASS_MS) {
+            return true;
+        }
+        try {
+            return pc.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        borrowed.remove(pc);
+        if (pc.statementCache != null) {
+            pc.statementCache.checkInAll();
+        }
+        boolean healthy = true;
+        try {
+            if (pc.physical.isClosed()) {
+                healthy = false;
+            } else if (!pc.physical.getAutoCommit()) {
+                // Never hand out a connection with an open transaction
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        if (!healthy) {
+            discard(pc);
+            return;
+        }
+
+        boolean closeNow;
+        lock.lock();
+        try {
+            closeNow = closed;
+            if (!closeNow) {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.addFirst(pc);
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (closeNow) {
+            discard(pc);
+        }
+    }
+
+    private void discard(PooledConnection pc) {
+        closeQuietly(pc);
+        lock.lock();
+        try {
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            detectLeaks();
+            fillToMinimum();
+        } catch (Exception e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Deque<PooledConnection> expired = new ArrayDeque<>();
+        lock.lock();
+        try {
+            // Oldest idle connections sit at the tail of the stack
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && totalConnections - expired.size() > minSize) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastReturnedAt >= idleTimeoutMs) {
+                    it.remove();
+                    expired.add(pc);
+                }
+            }
+            totalConnections -= expired.size();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pc : expired) {
+            closeQuietly(pc);
+            connectionsEvicted.increment();
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakThresholdMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pc : borrowed) {
+            if (!pc.leakReported && now - pc.borrowedAt > leakThresholdMs) {
+                pc.leakReported = true;
+                leaksDetected.increment();
+                System.err.println("Possible connection leak: connection held for " + (now - pc.borrowedAt)
+                        + "ms by " + pc.borrowerThread);
+                if (pc.borrowTrace != null) {
+                    pc.borrowTrace.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || totalConnections >= minSize) {
+                    return;
+                }
+                totalConnections++;
+            } finally {
+                lock.unlock();
+            }
+            PooledConnection pc;
+            try {
+                pc = openPhysical();
+            } catch (SQLException e) {
+                System.err.println("Connection pool could not pre-open a connection: " + e.getMessage());
+                return;
+            }
+            lock.lock();
+            try {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.addLast(pc);
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public void shutdown() {
+        Deque<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayDeque<>(idle);
+            totalConnections -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pc : toClose) {
+            closeQuietly(pc);
+        }
+        // Borrowed connections are closed as they come back
+    }
+
+    private void closeQuietly(PooledConnection pc) {
+        if (pc.statementCache != null) {
+            pc.statementCache.closeAll();
+        }
+        try {
+            pc.physical.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        lock.lock();
+        try {
+            stats.put("idle", idle.size());
+            stats.put("total", totalConnections);
+            stats.put("waiters", waiters);
+        } finally {
+            lock.unlock();
+        }
+        long borrows = borrowCount.sum();
+        stats.put("active", borrowed.size());
+        stats.put("minSize", minSize);
+        stats.put("maxSize", maxSize);
+        stats.put("borrows", borrows);
+        stats.put("avgBorrowWaitMs",
+                String.format("%.3f", borrows > 0 ? borrowWaitNanos.sum() / (double) borrows / 1_000_000 : 0.0));
+        stats.put("borrowTimeouts", borrowTimeouts.sum());
+        stats.put("connectionsCreated", connectionsCreated.sum());
+        stats.put("connectionsEvicted", connectionsEvicted.sum());
+        stats.put("leaksDetected", leaksDetected.sum());
+        stats.put("statementCacheSize", statementCacheSize);
+        stats.putAll(StatementCache.describe(statementCacheHits.sum(), statementCacheMisses.sum(),
+                statementCacheEvictions.sum()));
+        return stats;
+    }
+
+    private final class PooledConnection {
+        final Connection physical;
+        final StatementCache statementCache;
+        volatile long lastReturnedAt;
+        volatile long borrowedAt;
+        volatile boolean leakReported;
+        volatile String borrowerThread;
+        volatile Throwable borrowTrace;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = statementCacheSize > 0
+                    ? new StatementCache(statementCacheSize, statementCacheHits, statementCacheMisses,
+                            statementCacheEvictions)
+                    : null;
+        }
+
+        Connection borrow(boolean traceLeaks) {
+            borrowedAt = System.currentTimeMillis();
+            leakReported = false;
+            borrowerThread = Thread.currentThread().getName();
+            borrowTrace = traceLeaks ? new Throwable("Connection borrowed here") : null;
+            borrowed.add(this);
+            // A fresh proxy per borrow so a stale reference can never touch the next borrower's session
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new LogicalConnection(this));
+        }
+    }
+
+    private final class LogicalConnection implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean logicallyClosed = false;
+
+        LogicalConnection(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+                default:
+                    break;
+            }
+            if (logicallyClosed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (pooled.statementCache != null && method.getName().equals("prepareStatement")) {
+                Class<?>[] params = method.getParameterTypes();
+                if (params.length == 1) {
+                    return pooled.statementCache.prepare(pooled.physical, (Connection) proxy, (String) args[0]);
+                }
+                if (params.length == 2 && params[1] == int.class) {
+                    return pooled.statementCache.prepare(pooled.physical, (Connection) proxy, (String) args[0],
+                            (Integer) args[1]);
+                }
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package org.example.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 
 public class DatabaseConnection {
     private static final String URL = EnvLoader.get("DB_URL");
     private static final String USER = EnvLoader.get("DB_USER");
     private static final String PASSWORD = EnvLoader.get("DB_PASSWORD");
 
-    private static Connection connection = null;
+    // Pool tuning, all optional in .env
+    private static final int POOL_MIN_SIZE = EnvLoader.getInt("DB_POOL_MIN_SIZE", 2);
+    private static final int POOL_MAX_SIZE = EnvLoader.getInt("DB_POOL_MAX_SIZE", 10);
+    private static final long POOL_IDLE_TIMEOUT_MS = EnvLoader.getLong("DB_POOL_IDLE_TIMEOUT_MS", 300_000);
+    private static final long POOL_BORROW_TIMEOUT_MS = EnvLoader.getLong("DB_POOL_BORROW_TIMEOUT_MS", 5_000);
+    private static final long POOL_LEAK_THRESHOLD_MS = EnvLoader.getLong("DB_POOL_LEAK_THRESHOLD_MS", 60_000);
+    private static final boolean POOL_LEAK_TRACE = EnvLoader.getBoolean("DB_POOL_LEAK_TRACE", false);
+    private static final int STATEMENT_CACHE_SIZE = EnvLoader.getInt("DB_STATEMENT_CACHE_SIZE", 64);
+
+    private static volatile ConnectionPool pool = null;
 
     static {
         try {
@@ -19,28 +29,51 @@ public class DatabaseConnection {
         }
     }
 
+    /**
+     * Borrows a connection from the pool. Closing the returned connection hands it
+     * back to the pool rather than disconnecting from MySQL.
+     */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        return getPool().getConnection();
+    }
+
+    public static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(URL, USER, PASSWORD, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                            POOL_IDLE_TIMEOUT_MS, POOL_BORROW_TIMEOUT_MS, POOL_LEAK_THRESHOLD_MS,
+                            POOL_LEAK_TRACE, STATEMENT_CACHE_SIZE);
+                    pool = current;
+                }
+            }
         }
-        return connection;
+        return current;
+    }
+
+    /** Configured upper bound on pooled connections, available before the pool is created. */
+    public static int getPoolMaxSize() {
+        return POOL_MAX_SIZE;
+    }
+
+    public static Map<String, Object> getPoolStatistics() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStatistics() : new HashMap<>();
     }
 
     public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
+        synchronized (DatabaseConnection.class) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
             }
         }
     }
 
     // For performance measurement
     public static void resetConnection() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            connection.close();
-        }
-        connection = null;
+        closeConnection();
     }
-}
\ No newline at end of file
+}
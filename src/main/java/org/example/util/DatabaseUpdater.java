@@ -35,7 +35,12 @@ public class DatabaseUpdater {
             ensureIndex(conn, "idx_appointments_date", "appointments", "appointment_date");
             ensureIndex(conn, "idx_appointments_patient", "appointments", "patient_id");
             ensureIndex(conn, "idx_appointments_doctor", "appointments", "doctor_id");
+            ensureIndex(conn, "idx_appointments_doctor_slot", "appointments",
+                    "doctor_id, appointment_date, appointment_time");
+            ensureIndex(conn, "idx_prescriptions_date", "prescriptions", "prescription_date, id");
+            ensureIndex(conn, "idx_prescription_items_medication", "prescription_items", "medication");
             ensureIndex(conn, "idx_inventory_name", "medical_inventory", "item_name");
+            ensureIndex(conn, "ft_patients_search", "patients", "first_name, last_name, email, phone", "FULLTEXT");
 
             System.out.println("Database schema updated successfully!");
         }
@@ -43,12 +48,17 @@ public class DatabaseUpdater {
 
     private static void ensureIndex(Connection conn, String indexName, String table, String columns)
             throws SQLException {
+        ensureIndex(conn, indexName, table, columns, "");
+    }
+
+    private static void ensureIndex(Connection conn, String indexName, String table, String columns, String kind)
+            throws SQLException {
         try (Statement stmt = conn.createStatement()) {
             // Check if index exists (MySQL specific)
             try (ResultSet rs = stmt
                     .executeQuery("SHOW INDEX FROM " + table + " WHERE Key_name = '" + indexName + "'")) {
                 if (!rs.next()) {
-                    stmt.execute("CREATE INDEX " + indexName + " ON " + table + " (" + columns + ")");
+                    stmt.execute("CREATE " + (kind.isEmpty() ? "" : kind + " ") + "INDEX " + indexName + " ON " + table + " (" + columns + ")");
                     System.out.println("Created index: " + indexName);
                 }
             } catch (SQLException e) {
@@ -44,4 +44,31 @@ public class EnvLoader {
     public static String get(String key) {
         return ENV.get(key);
     }
+
+    public static String get(String key, String defaultValue) {
+        String value = ENV.get(key);
+        return value != null && !value.isEmpty() ? value : defaultValue;
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = ENV.get(key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: " + key + " is not a number, using default " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = ENV.get(key);
+        return value != null && !value.isEmpty() ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
 }
@@ -0,0 +1,153 @@
+package org.example.util;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.scene.Cursor;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.stage.Window;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work for the controllers off the FX application thread.
+ *
+ * Each call becomes a {@link Task} on a virtual thread. The Task delivers its
+ * result back on the FX thread, where the success callback runs; failures are
+ * shown with {@link AlertUtils}. While any task is running every window shows
+ * a wait cursor and {@link #busyProperty()} is true, so a view can bind a
+ * progress indicator to it.
+ *
+ * Must be called from the FX application thread.
+ */
+public final class FxAsync {
+
+    @FunctionalInterface
+    public interface DbCall<T> {
+        T call() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface DbAction {
+        void run() throws Exception;
+    }
+
+    private static final ExecutorService EXECUTOR = Executors
+            .newThreadPerTaskExecutor(Thread.ofVirtual().name("fx-db-", 0).factory());
+
+    // Latest task per key; starting a new one under the same key cancels the old one
+    private static final Map<String, Task<?>> latestByKey = new ConcurrentHashMap<>();
+
+    private static final ReadOnlyBooleanWrapper busy = new ReadOnlyBooleanWrapper(false);
+    private static int runningCount = 0;
+
+    private FxAsync() {
+    }
+
+    /**
+     * Runs {@code work} in the background and hands its result to
+     * {@code onSuccess} on the FX thread. On failure an error alert starting
+     * with {@code errorContext} is shown; pass null to only log the failure.
+     */
+    public static <T> Task<T> run(DbCall<T> work, Consumer<T> onSuccess, String errorContext) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (onSuccess != null) {
+                onSuccess.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(e -> reportFailure(task.getException(), errorContext));
+        submit(task);
+        return task;
+    }
+
+    public static Task<Void> run(DbAction work, Runnable onSuccess, String errorContext) {
+        return run(() -> {
+            work.run();
+            return null;
+        }, ignored -> {
+            if (onSuccess != null) {
+                onSuccess.run();
+            }
+        }, errorContext);
+    }
+
+    /**
+     * Like {@link #run(DbCall, Consumer, String)}, but cancels any task still
+     * running under the same key first, so only the newest request (for example
+     * the latest search) delivers its result.
+     */
+    public static <T> Task<T> runLatest(String key, DbCall<T> work, Consumer<T> onSuccess, String errorContext) {
+        Task<?> previous = latestByKey.get(key);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+        Task<T> task = run(work, onSuccess, errorContext);
+        latestByKey.put(key, task);
+        task.addEventHandler(WorkerStateEvent.ANY, e -> {
+            if (task.isDone()) {
+                latestByKey.remove(key, task);
+            }
+        });
+        return task;
+    }
+
+    public static ReadOnlyBooleanProperty busyProperty() {
+        return busy.getReadOnlyProperty();
+    }
+
+    public static void shutdown() {
+        latestByKey.values().forEach(task -> task.cancel(true));
+        EXECUTOR.shutdownNow();
+    }
+
+    private static void submit(Task<?> task) {
+        changeRunning(1);
+        task.addEventHandler(WorkerStateEvent.ANY, e -> {
+            if (e.getEventType() == WorkerStateEvent.WORKER_STATE_SUCCEEDED
+                    || e.getEventType() == WorkerStateEvent.WORKER_STATE_FAILED
+                    || e.getEventType() == WorkerStateEvent.WORKER_STATE_CANCELLED) {
+                changeRunning(-1);
+            }
+        });
+        EXECUTOR.execute(task);
+    }
+
+    private static void changeRunning(int delta) {
+        runningCount += delta;
+        boolean nowBusy = runningCount > 0;
+        if (nowBusy != busy.get()) {
+            busy.set(nowBusy);
+            for (Window window : Window.getWindows()) {
+                Scene scene = window.getScene();
+                if (scene != null) {
+                    scene.setCursor(nowBusy ? Cursor.WAIT : Cursor.DEFAULT);
+                }
+            }
+        }
+    }
+
+    private static void reportFailure(Throwable error, String errorContext) {
+        if (errorContext == null) {
+            if (error != null) {
+                error.printStackTrace();
+            }
+            return;
+        }
+        String message = error != null ? error.getMessage() : "Unknown error";
+        String title = error instanceof SQLException ? "Database Error" : "Error";
+        AlertUtils.showAlert(title, errorContext + ": " + message, Alert.AlertType.ERROR);
+    }
+}
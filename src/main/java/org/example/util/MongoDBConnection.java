@@ -1,33 +1,120 @@
 package org.example.util;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 public class MongoDBConnection {
     // Connection string with TLS configuration for Java 23 compatibility
     private static final String CONNECTION_STRING = EnvLoader.get("MONGO_URI");
     private static final String DATABASE_NAME = EnvLoader.get("MONGO_DB");
 
-    private static MongoClient mongoClient = null;
+    // Client tuning, all optional in .env; unset keys keep the connection string's or the driver's value
+    private static final String POOL_MIN_SIZE = "MONGO_POOL_MIN_SIZE";
+    private static final String POOL_MAX_SIZE = "MONGO_POOL_MAX_SIZE";
+    private static final String POOL_MAX_WAIT_MS = "MONGO_POOL_MAX_WAIT_MS";
+    private static final String POOL_MAX_IDLE_MS = "MONGO_POOL_MAX_IDLE_MS";
+    private static final String SERVER_SELECTION_TIMEOUT_MS = "MONGO_SERVER_SELECTION_TIMEOUT_MS";
+    private static final String CONNECT_TIMEOUT_MS = "MONGO_CONNECT_TIMEOUT_MS";
+    private static final String READ_PREFERENCE = "MONGO_READ_PREFERENCE";
+    private static final String WRITE_CONCERN = "MONGO_WRITE_CONCERN";
+
+    private static final MongoMetrics metrics = new MongoMetrics();
+    private static volatile MongoClient mongoClient = null;
 
     public static MongoDatabase getDatabase() {
-        if (mongoClient == null) {
-            try {
-                mongoClient = MongoClients.create(CONNECTION_STRING);
-            } catch (Exception e) {
-                System.err.println("Failed to connect to MongoDB: " + e.getMessage());
-                throw new RuntimeException(
-                        "MongoDB Connection failed. Please check CONNECTION_STRING in MongoDBConnection.java");
+        MongoClient current = mongoClient;
+        if (current == null) {
+            synchronized (MongoDBConnection.class) {
+                current = mongoClient;
+                if (current == null) {
+                    try {
+                        current = MongoClients.create(buildSettings());
+                    } catch (Exception e) {
+                        System.err.println("Failed to connect to MongoDB: " + e.getMessage());
+                        throw new RuntimeException(
+                                "MongoDB Connection failed. Please check MONGO_URI and the MONGO_* settings in .env");
+                    }
+                    mongoClient = current;
+                }
             }
         }
-        return mongoClient.getDatabase(DATABASE_NAME);
+        return current.getDatabase(DATABASE_NAME);
+    }
+
+    private static MongoClientSettings buildSettings() {
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(CONNECTION_STRING))
+                .addCommandListener(metrics)
+                .applyToConnectionPoolSettings(pool -> {
+                    pool.addConnectionPoolListener(metrics);
+                    if (isSet(POOL_MIN_SIZE))
+                        pool.minSize(EnvLoader.getInt(POOL_MIN_SIZE, 0));
+                    if (isSet(POOL_MAX_SIZE))
+                        pool.maxSize(EnvLoader.getInt(POOL_MAX_SIZE, 100));
+                    if (isSet(POOL_MAX_WAIT_MS))
+                        pool.maxWaitTime(EnvLoader.getLong(POOL_MAX_WAIT_MS, 120_000), TimeUnit.MILLISECONDS);
+                    if (isSet(POOL_MAX_IDLE_MS))
+                        pool.maxConnectionIdleTime(EnvLoader.getLong(POOL_MAX_IDLE_MS, 0), TimeUnit.MILLISECONDS);
+                })
+                .applyToClusterSettings(cluster -> {
+                    if (isSet(SERVER_SELECTION_TIMEOUT_MS))
+                        cluster.serverSelectionTimeout(EnvLoader.getLong(SERVER_SELECTION_TIMEOUT_MS, 30_000),
+                                TimeUnit.MILLISECONDS);
+                })
+                .applyToSocketSettings(socket -> {
+                    if (isSet(CONNECT_TIMEOUT_MS))
+                        socket.connectTimeout((int) EnvLoader.getLong(CONNECT_TIMEOUT_MS, 10_000),
+                                TimeUnit.MILLISECONDS);
+                });
+        if (isSet(READ_PREFERENCE)) {
+            builder.readPreference(ReadPreference.valueOf(EnvLoader.get(READ_PREFERENCE)));
+        }
+        if (isSet(WRITE_CONCERN)) {
+            builder.writeConcern(parseWriteConcern(EnvLoader.get(WRITE_CONCERN)));
+        }
+        return builder.build();
+    }
+
+    private static boolean isSet(String key) {
+        String value = EnvLoader.get(key);
+        return value != null && !value.isEmpty();
+    }
+
+    /** "majority", a node count such as "1", or a named concern such as "journaled". */
+    private static WriteConcern parseWriteConcern(String value) {
+        if (value.equalsIgnoreCase("majority")) {
+            return WriteConcern.MAJORITY;
+        }
+        if (value.matches("\\d+")) {
+            return new WriteConcern(Integer.parseInt(value));
+        }
+        WriteConcern named = WriteConcern.valueOf(value);
+        if (named == null) {
+            throw new IllegalArgumentException("Unknown " + WRITE_CONCERN + ": " + value);
+        }
+        return named;
+    }
+
+    /** Checkout latency and per-command timings; empty until the client has been created. */
+    public static Map<String, Object> getStatistics() {
+        return mongoClient != null ? metrics.getStatistics() : new HashMap<>();
     }
 
     public static void close() {
-        if (mongoClient != null) {
-            mongoClient.close();
-            mongoClient = null;
+        synchronized (MongoDBConnection.class) {
+            if (mongoClient != null) {
+                mongoClient.close();
+                mongoClient = null;
+            }
         }
     }
 }
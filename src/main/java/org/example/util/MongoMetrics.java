@@ -0,0 +1,132 @@
+package org.example.util;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Driver listener that records MongoDB connection checkout latency and
+ * per-command timings for the performance report.
+ */
+public class MongoMetrics implements ConnectionPoolListener, CommandListener {
+
+    // The sync driver checks a connection out on the calling thread
+    private final ThreadLocal<Long> checkoutStartedAt = new ThreadLocal<>();
+
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder checkoutNanos = new LongAdder();
+    private final LongAccumulator maxCheckoutNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder checkoutFailures = new LongAdder();
+    private final LongAdder checkedOut = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    private final Map<String, CommandStats> commands = new ConcurrentHashMap<>();
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        checkoutStartedAt.set(System.nanoTime());
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        checkedOut.increment();
+        Long startedAt = checkoutStartedAt.get();
+        if (startedAt != null) {
+            checkoutStartedAt.remove();
+            long elapsed = System.nanoTime() - startedAt;
+            checkouts.increment();
+            checkoutNanos.add(elapsed);
+            maxCheckoutNanos.accumulate(elapsed);
+        }
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        checkoutStartedAt.remove();
+        checkoutFailures.increment();
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        checkedOut.decrement();
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        connectionsCreated.increment();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        connectionsClosed.increment();
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        commandStats(event.getCommandName()).record(event.getElapsedTime(TimeUnit.NANOSECONDS), false);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        commandStats(event.getCommandName()).record(event.getElapsedTime(TimeUnit.NANOSECONDS), true);
+    }
+
+    private CommandStats commandStats(String name) {
+        return commands.computeIfAbsent(name, n -> new CommandStats());
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long count = checkouts.sum();
+        stats.put("checkouts", count);
+        stats.put("avgCheckoutMs", millis(count > 0 ? checkoutNanos.sum() / (double) count : 0));
+        stats.put("maxCheckoutMs", millis(maxCheckoutNanos.get()));
+        stats.put("checkoutFailures", checkoutFailures.sum());
+        stats.put("checkedOut", checkedOut.sum());
+        stats.put("connectionsCreated", connectionsCreated.sum());
+        stats.put("connectionsClosed", connectionsClosed.sum());
+        new TreeMap<>(commands).forEach((name, c) -> stats.put("command." + name, c.describe()));
+        return stats;
+    }
+
+    private static String millis(double nanos) {
+        return String.format("%.3f", nanos / 1_000_000);
+    }
+
+    private static final class CommandStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long elapsedNanos, boolean failed) {
+            count.increment();
+            if (failed) {
+                failures.increment();
+            }
+            nanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+        }
+
+        String describe() {
+            long n = count.sum();
+            return n + " calls, avg " + millis(n > 0 ? nanos.sum() / (double) n : 0) + "ms, max "
+                    + millis(maxNanos.get()) + "ms, " + failures.sum() + " failed";
+        }
+    }
+}
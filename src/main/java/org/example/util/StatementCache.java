@@ -0,0 +1,208 @@
+package org.example.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-connection LRU cache of prepared statements keyed by SQL text.
+ *
+ * With server-side prepared statements enabled, a cache hit skips the
+ * parse/plan round trip on MySQL. Callers still close statements as usual;
+ * closing a cached statement only resets it and marks it free for reuse.
+ */
+class StatementCache {
+
+    private static final int NO_GENERATED_KEYS_FLAG = -1;
+
+    private final int capacity;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    // Access-ordered, so iteration starts at the least recently used statement
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(int capacity, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    synchronized PreparedStatement prepare(Connection physical, Connection logical, String sql) throws SQLException {
+        return prepare(physical, logical, sql, NO_GENERATED_KEYS_FLAG);
+    }
+
+    synchronized PreparedStatement prepare(Connection physical, Connection logical, String sql,
+            int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + "|" + sql;
+        Entry entry = entries.get(key);
+
+        if (entry != null && !entry.inUse) {
+            hits.increment();
+            entry.inUse = true;
+            // Each borrow has its own logical connection; getConnection() must return the current one
+            entry.logical = logical;
+            return entry.proxy;
+        }
+
+        misses.increment();
+        PreparedStatement physicalStmt = autoGeneratedKeys == NO_GENERATED_KEYS_FLAG
+                ? physical.prepareStatement(sql)
+                : physical.prepareStatement(sql, autoGeneratedKeys);
+
+        if (entry != null) {
+            // Same SQL is already open on this connection (nested use); don't cache the duplicate
+            return physicalStmt;
+        }
+
+        Entry created;
+        try {
+            created = new Entry(physicalStmt);
+        } catch (SQLException e) {
+            closeQuietly(physicalStmt);
+            throw e;
+        }
+        created.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, new CachedStatementHandler(created));
+        created.logical = logical;
+        created.inUse = true;
+        entries.put(key, created);
+        evictIfNeeded();
+        return created.proxy;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > capacity && it.hasNext()) {
+            Entry eldest = it.next();
+            if (!eldest.inUse) {
+                it.remove();
+                closeQuietly(eldest.statement);
+                evictions.increment();
+            }
+        }
+    }
+
+    private synchronized void checkIn(Entry entry) {
+        entry.inUse = false;
+        entry.logical = null;
+        try {
+            ResultSet rs = entry.statement.getResultSet();
+            if (rs != null) {
+                rs.close();
+            }
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+            // Settings made by one caller must not carry over to the next borrow
+            entry.statement.setFetchSize(entry.defaultFetchSize);
+            entry.statement.setMaxRows(entry.defaultMaxRows);
+            entry.statement.setQueryTimeout(entry.defaultQueryTimeout);
+        } catch (SQLException e) {
+            // A statement that can't be reset is not worth keeping
+            entries.values().remove(entry);
+            closeQuietly(entry.statement);
+        }
+    }
+
+    /** Checks in statements the borrower left open, so they can be reused and evicted again. */
+    synchronized void checkInAll() {
+        for (Entry entry : new ArrayList<>(entries.values())) {
+            if (entry.inUse) {
+                checkIn(entry);
+            }
+        }
+    }
+
+    synchronized void closeAll() {
+        List<Entry> all = new ArrayList<>(entries.values());
+        entries.clear();
+        for (Entry entry : all) {
+            closeQuietly(entry.statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private static final class Entry {
+        final PreparedStatement statement;
+        // Driver defaults, restored on check-in
+        final int defaultFetchSize;
+        final int defaultMaxRows;
+        final int defaultQueryTimeout;
+        PreparedStatement proxy;
+        Connection logical;
+        boolean inUse;
+
+        Entry(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultMaxRows = statement.getMaxRows();
+            this.defaultQueryTimeout = statement.getQueryTimeout();
+        }
+    }
+
+    private final class CachedStatementHandler implements InvocationHandler {
+        private final Entry entry;
+
+        CachedStatementHandler(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (entry.inUse) {
+                        checkIn(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return !entry.inUse || entry.statement.isClosed();
+                case "getConnection":
+                    return entry.logical;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (!entry.inUse) {
+                throw new SQLException("Statement has already been closed");
+            }
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    static Map<String, Object> describe(long hits, long misses, long evictions) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long lookups = hits + misses;
+        stats.put("statementCacheHits", hits);
+        stats.put("statementCacheMisses", misses);
+        stats.put("statementCacheEvictions", evictions);
+        stats.put("statementCacheHitRate", String.format("%.2f%%", lookups > 0 ? hits * 100.0 / lookups : 0.0));
+        return stats;
+    }
+}
@@ -8,6 +8,10 @@ import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import org.example.model.Appointment;
+import org.example.model.Doctor;
+import org.example.model.Patient;
+import org.example.service.AppointmentService;
+import org.example.service.EntityChange;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -16,6 +20,15 @@ import java.util.List;
 public class AppointmentTableView {
 
     public void show(String title, List<Appointment> appointments) {
+        show(title, appointments, false);
+    }
+
+    /**
+     * Edits and cancellations made while the table is open are patched in.
+     * New bookings are added only when {@code listsAll} says the table shows
+     * every appointment rather than a filtered subset.
+     */
+    public void show(String title, List<Appointment> appointments, boolean listsAll) {
         Stage stage = new Stage();
         stage.setTitle(title);
         TableView<Appointment> table = new TableView<>();
@@ -48,6 +61,35 @@ public class AppointmentTableView {
         table.getColumns().addAll(idCol, patCol, docCol, dateCol, timeCol, statusCol);
         table.setItems(data);
 
+        TableUpdates.bind(stage, Appointment.class, data, Appointment::getId, () -> listsAll);
+        // Deleting or renaming a patient or doctor reaches their appointments without an appointment change
+        TableUpdates.onChange(stage, Patient.class, change -> {
+            if (change.getType() == EntityChange.Type.DELETED) {
+                data.removeIf(appt -> appt.getPatientId() == change.getId());
+            } else if (change.getType() == EntityChange.Type.UPDATED) {
+                String name = AppointmentService.patientName(change.getEntity());
+                data.forEach(appt -> {
+                    if (appt.getPatientId() == change.getId()) {
+                        appt.setPatientName(name);
+                    }
+                });
+                table.refresh();
+            }
+        });
+        TableUpdates.onChange(stage, Doctor.class, change -> {
+            if (change.getType() == EntityChange.Type.DELETED) {
+                data.removeIf(appt -> appt.getDoctorId() == change.getId());
+            } else if (change.getType() == EntityChange.Type.UPDATED) {
+                String name = AppointmentService.doctorName(change.getEntity());
+                data.forEach(appt -> {
+                    if (appt.getDoctorId() == change.getId()) {
+                        appt.setDoctorName(name);
+                    }
+                });
+                table.refresh();
+            }
+        });
+
         Scene scene = new Scene(table, 600, 400);
         stage.setScene(scene);
         stage.show();
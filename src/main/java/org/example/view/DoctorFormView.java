@@ -8,11 +8,11 @@ import org.example.model.Department;
 import org.example.model.Doctor;
 import org.example.service.DoctorService;
 import org.example.util.AlertUtils;
+import org.example.util.FxAsync;
 import org.example.util.ValidationUtils;
 import org.example.validation.DoctorValidator;
 import org.example.validation.InputValidator;
 
-import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,7 +20,7 @@ public class DoctorFormView {
 
     private final DoctorValidator doctorValidator = new DoctorValidator();
 
-    public void showAddDoctorDialog(DoctorService doctorService, List<Department> departments) {
+    public void showAddDoctorDialog(DoctorService doctorService, List<Department> departments, Runnable onSuccess) {
         Dialog<Doctor> dialog = new Dialog<>();
         dialog.setTitle("Add New Doctor");
 
@@ -104,18 +104,15 @@ public class DoctorFormView {
         });
 
         Optional<Doctor> result = dialog.showAndWait();
-        result.ifPresent(doctor -> {
-            try {
-                doctorService.addDoctor(doctor);
-                AlertUtils.showAlert("Success", "Doctor added.", Alert.AlertType.INFORMATION);
-            } catch (SQLException e) {
-                AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-            }
-        });
+        result.ifPresent(doctor -> FxAsync.run(() -> doctorService.addDoctor(doctor), () -> {
+            AlertUtils.showAlert("Success", "Doctor added.", Alert.AlertType.INFORMATION);
+            if (onSuccess != null)
+                onSuccess.run();
+        }, "Failed to add doctor"));
     }
 
     public void showUpdateDoctorDialog(Doctor doctor, DoctorService doctorService, List<Department> departments,
-            String originalEmail) {
+            String originalEmail, Runnable onSuccess) {
         Dialog<Doctor> updateDialog = new Dialog<>();
         updateDialog.setTitle("Update Doctor");
         updateDialog.setHeaderText("Update details for Dr. " + doctor.getFirstName() + " " + doctor.getLastName());
@@ -193,14 +190,12 @@ public class DoctorFormView {
         });
 
         Optional<Doctor> result = updateDialog.showAndWait();
-        result.ifPresent(updatedDoctor -> {
-            try {
-                doctorService.updateDoctor(updatedDoctor, originalEmail);
-                AlertUtils.showAlert("Success", "Doctor updated.", Alert.AlertType.INFORMATION);
-            } catch (SQLException e) {
-                AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-            }
-        });
+        result.ifPresent(updatedDoctor -> FxAsync.run(() -> doctorService.updateDoctor(updatedDoctor, originalEmail),
+                () -> {
+                    AlertUtils.showAlert("Success", "Doctor updated.", Alert.AlertType.INFORMATION);
+                    if (onSuccess != null)
+                        onSuccess.run();
+                }, "Failed to update doctor"));
     }
 
     private Label createErrorLabel() {
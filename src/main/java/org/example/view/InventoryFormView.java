@@ -4,21 +4,21 @@ import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
-import org.example.dao.MedicalInventoryDAO;
 import org.example.model.MedicalInventory;
+import org.example.service.InventoryService;
 import org.example.util.AlertUtils;
+import org.example.util.FxAsync;
 import org.example.util.ValidationUtils;
 import org.example.validation.InputValidator;
 import org.example.validation.InventoryValidator;
 
-import java.sql.SQLException;
 import java.util.List;
 
 public class InventoryFormView {
 
     private final InventoryValidator inventoryValidator = new InventoryValidator();
 
-    public void showAddInventoryDialog(MedicalInventoryDAO inventoryDAO) {
+    public void showAddInventoryDialog(InventoryService inventoryService, Runnable onSuccess) {
         Dialog<MedicalInventory> dialog = new Dialog<>();
         dialog.setTitle("Add Medical Supply");
         dialog.setHeaderText("Enter medical supply or equipment details");
@@ -103,17 +103,14 @@ public class InventoryFormView {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(item -> {
-            try {
-                inventoryDAO.addInventoryItem(item);
-                AlertUtils.showAlert("Success", "Medical supply added to inventory", Alert.AlertType.INFORMATION);
-            } catch (SQLException e) {
-                AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
-            }
-        });
+        dialog.showAndWait().ifPresent(item -> FxAsync.run(() -> inventoryService.addInventoryItem(item), () -> {
+            AlertUtils.showAlert("Success", "Medical supply added to inventory", Alert.AlertType.INFORMATION);
+            if (onSuccess != null)
+                onSuccess.run();
+        }, "Failed to add item"));
     }
 
-    public void showUpdateStockDialog(MedicalInventoryDAO inventoryDAO) {
+    public void showUpdateStockDialog(InventoryService inventoryService, Runnable onSuccess) {
         TextInputDialog d = new TextInputDialog();
         d.setTitle("Update Inventory");
         d.setHeaderText("Update stock quantity");
@@ -134,13 +131,14 @@ public class InventoryFormView {
                             AlertUtils.showAlert("Error", "Quantity must be positive", Alert.AlertType.ERROR);
                             return;
                         }
-                        inventoryDAO.updateInventoryQuantity(id, newQty);
-                        AlertUtils.showAlert("Success", "Stock quantity updated successfully",
-                                Alert.AlertType.INFORMATION);
+                        FxAsync.run(() -> inventoryService.updateInventoryQuantity(id, newQty), () -> {
+                            AlertUtils.showAlert("Success", "Stock quantity updated successfully",
+                                    Alert.AlertType.INFORMATION);
+                            if (onSuccess != null)
+                                onSuccess.run();
+                        }, "Failed to update stock");
                     } catch (NumberFormatException e) {
                         AlertUtils.showAlert("Error", "Please enter a valid number", Alert.AlertType.ERROR);
-                    } catch (Exception e) {
-                        AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
                     }
                 });
             } catch (NumberFormatException e) {
@@ -1,6 +1,7 @@
 package org.example.view;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.scene.Scene;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
@@ -14,8 +15,8 @@ public class InventoryTableView {
 
     public void show(List<MedicalInventory> inventoryList) {
         Stage stage = new Stage();
-        TableView<MedicalInventory> table = new TableView<>(
-                FXCollections.observableArrayList(inventoryList));
+        ObservableList<MedicalInventory> items = FXCollections.observableArrayList(inventoryList);
+        TableView<MedicalInventory> table = new TableView<>(items);
 
         TableColumn<MedicalInventory, Integer> idCol = new TableColumn<>("Item ID");
         idCol.setCellValueFactory(new PropertyValueFactory<>("id"));
@@ -36,6 +37,8 @@ public class InventoryTableView {
         table.getColumns().addAll(idCol, nameCol, qtyCol, unitCol);
         stage.setScene(new Scene(table, 650, 450));
         stage.setTitle("Medical Inventory");
+        // Stock changes made from the admin menu show up without reopening
+        TableUpdates.bind(stage, MedicalInventory.class, items, MedicalInventory::getId, () -> true);
         stage.show();
     }
 }
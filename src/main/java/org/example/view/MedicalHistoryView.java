@@ -1,21 +1,38 @@
 package org.example.view;
 
-import javafx.collections.FXCollections;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
-import org.example.dao.MedicalLogDAO;
 import org.example.model.MedicalLog;
 import org.example.model.Patient;
 import org.example.model.Prescription;
-import org.example.service.PrescriptionService;
+import org.example.model.PrescriptionItem;
+import org.example.service.AsyncMedicalLogService;
+import org.example.service.AsyncPrescriptionService;
 
-import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MedicalHistoryView {
-
-    public void show(Patient patient, MedicalLogDAO medicalLogDAO, PrescriptionService prescriptionService) {
+    private static final int PAGE_SIZE = 50;
+
+    /**
+     * Opens the history straight away and fills the logs (MongoDB) and
+     * prescriptions (MySQL) tabs independently as each store answers, so
+     * opening it costs the slower of the two rather than their sum. Each tab
+     * shows PAGE_SIZE rows, newest first, with "Load more" for the rest.
+     */
+    public void show(Patient patient, AsyncMedicalLogService logService, AsyncPrescriptionService prescriptionService) {
         Stage historyStage = new Stage();
         historyStage.setTitle("Medical History - " + patient.getFirstName() + " " + patient.getLastName());
 
@@ -38,14 +55,9 @@ public class MedicalHistoryView {
 
         logsTable.getColumns().addAll(dateCol, severityCol, contentCol);
 
-        // Fetch logs
-        try {
-            logsTable.setItems(FXCollections.observableArrayList(medicalLogDAO.getLogsByPatientId(patient.getId())));
-        } catch (Exception e) {
-            logsTable.setPlaceholder(new Label("Error fetching logs: " + e.getMessage()));
-        }
-
-        logsTab.setContent(logsTable);
+        Pager<MedicalLog> logsPager = new Pager<>(logsTable, "logs",
+                after -> logService.getLogsPage(patient.getId(), null, after, PAGE_SIZE));
+        logsTab.setContent(logsPager.layout());
 
         // Tab 2: Prescriptions (MySQL)
         Tab prescriptionsTab = new Tab("Prescriptions");
@@ -63,22 +75,103 @@ public class MedicalHistoryView {
         TableColumn<Prescription, String> notesCol = new TableColumn<>("Notes");
         notesCol.setCellValueFactory(new PropertyValueFactory<>("notes"));
 
-        prescriptionsTable.getColumns().addAll(pDateCol, doctorCol, diagnosisCol, notesCol);
-
-        // Fetch prescriptions
-        try {
-            prescriptionsTable.setItems(FXCollections.observableArrayList(
-                    prescriptionService.getPrescriptionsByPatient(patient.getId())));
-        } catch (SQLException e) {
-            prescriptionsTable.setPlaceholder(new Label("Error: " + e.getMessage()));
-        }
-
-        prescriptionsTab.setContent(prescriptionsTable);
+        // Filled in the background before the page's rows are added
+        Map<Integer, List<PrescriptionItem>> itemsById = new ConcurrentHashMap<>();
+        TableColumn<Prescription, String> medicationsCol = new TableColumn<>("Medications");
+        medicationsCol.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                PrescriptionTableView.medicationSummary(itemsById.get(cellData.getValue().getId()))));
+
+        prescriptionsTable.getColumns().addAll(pDateCol, doctorCol, diagnosisCol, medicationsCol, notesCol);
+
+        // Each page of prescriptions, then the items of all of them in one query
+        Pager<Prescription> prescriptionsPager = new Pager<>(prescriptionsTable, "prescriptions",
+                after -> prescriptionService.getPrescriptionsByPatient(patient.getId(), after, PAGE_SIZE)
+                        .thenCompose(page -> {
+                            List<Integer> ids = new ArrayList<>();
+                            for (Prescription p : page) {
+                                ids.add(p.getId());
+                            }
+                            return prescriptionService.getPrescriptionItems(ids).thenApply(items -> {
+                                itemsById.putAll(items);
+                                return page;
+                            });
+                        }));
+        prescriptionsTab.setContent(prescriptionsPager.layout());
 
         tabPane.getTabs().addAll(logsTab, prescriptionsTab);
 
         Scene scene = new Scene(tabPane, 800, 600);
         historyStage.setScene(scene);
         historyStage.show();
+
+        // Both queries are in flight at once
+        logsPager.loadNext();
+        prescriptionsPager.loadNext();
+    }
+
+    @FunctionalInterface
+    private interface PageLoader<T> {
+        CompletableFuture<List<T>> load(T after);
+    }
+
+    /** Keyset paging for one table; pages are appended on the FX thread as they arrive. */
+    private static final class Pager<T> {
+        private final TableView<T> table;
+        private final String noun;
+        private final PageLoader<T> loader;
+        private final Label status = new Label();
+        private final Button loadMore = new Button("Load more");
+        private T last;
+        private boolean loading;
+
+        Pager(TableView<T> table, String noun, PageLoader<T> loader) {
+            this.table = table;
+            this.noun = noun;
+            this.loader = loader;
+            loadMore.setDisable(true);
+            loadMore.setOnAction(e -> loadNext());
+        }
+
+        Node layout() {
+            HBox bar = new HBox(10, loadMore, status);
+            bar.setPadding(new Insets(5));
+            BorderPane pane = new BorderPane(table);
+            pane.setBottom(bar);
+            return pane;
+        }
+
+        void loadNext() {
+            if (loading) {
+                return;
+            }
+            loading = true;
+            loadMore.setDisable(true);
+            status.setText("Loading " + noun + "...");
+            if (table.getItems().isEmpty()) {
+                table.setPlaceholder(new Label("Loading " + noun + "..."));
+            }
+            loader.load(last).whenCompleteAsync((page, error) -> {
+                loading = false;
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    status.setText("Error fetching " + noun + ": " + cause.getMessage());
+                    table.setPlaceholder(new Label("Error fetching " + noun + ": " + cause.getMessage()));
+                    // Lets the user retry the same page
+                    loadMore.setDisable(false);
+                    return;
+                }
+                if (!page.isEmpty()) {
+                    last = page.get(page.size() - 1);
+                    table.getItems().addAll(page);
+                }
+                boolean exhausted = page.size() < PAGE_SIZE;
+                loadMore.setDisable(exhausted);
+                table.setPlaceholder(new Label("No " + noun + " found"));
+                status.setText("Showing " + table.getItems().size() + " " + noun
+                        + (exhausted ? "" : " (more available)"));
+            }, Platform::runLater);
+        }
     }
 }
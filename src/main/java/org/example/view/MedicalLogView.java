@@ -2,112 +2,184 @@ package org.example.view;
 
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.stage.Stage;
+import org.example.dao.MedicalLogDAO;
 import org.example.model.MedicalLog;
 import org.example.model.Patient;
 import org.example.service.PatientService;
 import org.example.util.AlertUtils;
+import org.example.util.FxAsync;
 import org.example.validation.InputValidator;
 import org.example.validation.MedicalLogValidator;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class MedicalLogView {
 
+    private static final int PAGE_SIZE = 200;
+    // Fetch the next page once the scroll bar passes this fraction of its range
+    private static final double LOAD_MORE_THRESHOLD = 0.9;
+
     private final MedicalLogValidator medicalLogValidator = new MedicalLogValidator();
 
-    public void show(List<MedicalLog> logs, PatientService patientService) {
-        try {
-            if (logs.isEmpty()) {
+    /**
+     * Shows all medical logs newest first, fetching them a page at a time as
+     * the user scrolls. The title carries the total from a count query.
+     */
+    public void showPaged(MedicalLogDAO logDAO, PatientService patientService) {
+        ObservableList<MedicalLog> logList = FXCollections.observableArrayList();
+        Map<Integer, Patient> patientMap = new HashMap<>();
+        TableView<MedicalLog> table = createTable(logList, patientMap);
+        Label statusLabel = new Label();
+        PageState state = new PageState();
+
+        loadNextPage(logDAO, patientService, logList, patientMap, state, statusLabel, () -> {
+            if (logList.isEmpty()) {
                 AlertUtils.showAlert("Info", "No medical logs found.", Alert.AlertType.INFORMATION);
                 return;
             }
+            Stage stage = new Stage();
+            stage.setTitle("Medical Logs - " + state.total + " records");
+            BorderPane root = new BorderPane(table);
+            root.setBottom(statusLabel);
+            stage.setScene(new Scene(root, 1100, 500));
+            stage.show();
 
-            // Pre-fetch all patient data to avoid multiple database calls
-            Map<Integer, Patient> patientMap = new HashMap<>();
-
-            for (MedicalLog log : logs) {
-                try {
-                    int patientId = log.getPatientId();
-                    Patient p = patientService.getPatientById(patientId);
-                    if (p != null) {
-                        patientMap.put(patientId, p);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error fetching patient " + log.getPatientId() + ": " + e.getMessage());
+            // The scroll bar only exists once the table skin has been laid out
+            for (Node node : table.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                    bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= bar.getMax() * LOAD_MORE_THRESHOLD) {
+                            loadNextPage(logDAO, patientService, logList, patientMap, state, statusLabel, null);
+                        }
+                    });
                 }
             }
+        });
+    }
 
-            Stage stage = new Stage();
-            stage.setTitle("Medical Logs - " + logs.size() + " records");
-
-            TableView<MedicalLog> table = new TableView<>(FXCollections.observableArrayList(logs));
-
-            // Patient ID column
-            TableColumn<MedicalLog, Integer> patientIdCol = new TableColumn<>("Patient ID");
-            patientIdCol.setCellValueFactory(new PropertyValueFactory<>("patientId"));
-            patientIdCol.setPrefWidth(80);
-
-            // Patient Name column
-            TableColumn<MedicalLog, String> patientNameCol = new TableColumn<>("Patient Name");
-            patientNameCol.setCellValueFactory(cellData -> {
-                int patientId = cellData.getValue().getPatientId();
-                Patient p = patientMap.get(patientId);
-                if (p != null) {
-                    return new SimpleStringProperty(p.getFirstName() + " " + p.getLastName());
+    private void loadNextPage(MedicalLogDAO logDAO, PatientService patientService, ObservableList<MedicalLog> logList,
+            Map<Integer, Patient> patientMap, PageState state, Label statusLabel, Runnable onLoaded) {
+        if (state.exhausted || state.loading) {
+            return;
+        }
+        state.loading = true;
+        statusLabel.setText("Loading...");
+        MedicalLog after = state.last;
+        boolean first = after == null;
+        // Copied here because patientMap is only updated on the FX thread
+        Set<Integer> known = new HashSet<>(patientMap.keySet());
+        Task<LoadedPage> task = FxAsync.run(() -> {
+            LoadedPage loaded = new LoadedPage();
+            loaded.logs = logDAO.getLogsPage(null, null, after, PAGE_SIZE);
+            if (first) {
+                loaded.total = logDAO.countLogs(null, null);
+            }
+            // Patients not shown yet, resolved in one batched lookup
+            Set<Integer> missing = new HashSet<>();
+            for (MedicalLog log : loaded.logs) {
+                if (!known.contains(log.getPatientId())) {
+                    missing.add(log.getPatientId());
                 }
-                return new SimpleStringProperty("Unknown");
-            });
-            patientNameCol.setPrefWidth(150);
-
-            // Patient Email column
-            TableColumn<MedicalLog, String> patientEmailCol = new TableColumn<>("Patient Email");
-            patientEmailCol.setCellValueFactory(cellData -> {
-                int patientId = cellData.getValue().getPatientId();
-                Patient p = patientMap.get(patientId);
+            }
+            try {
+                loaded.patients.putAll(patientService.getPatientsByIds(missing));
+            } catch (Exception e) {
+                System.err.println("Error fetching patients for medical logs: " + e.getMessage());
+            }
+            return loaded;
+        }, loaded -> {
+            if (first) {
+                state.total = loaded.total;
+            }
+            loaded.patients.forEach((id, p) -> {
                 if (p != null) {
-                    String email = p.getEmail();
-                    return new SimpleStringProperty(
-                            (email != null && !email.isEmpty()) ? email : "N/A");
+                    patientMap.put(id, p);
                 }
-                return new SimpleStringProperty("N/A");
             });
-            patientEmailCol.setPrefWidth(200);
-
-            // Timestamp column
-            TableColumn<MedicalLog, String> dateCol = new TableColumn<>("Timestamp");
-            dateCol.setCellValueFactory(new PropertyValueFactory<>("timestamp"));
-            dateCol.setPrefWidth(160);
+            if (!loaded.logs.isEmpty()) {
+                state.last = loaded.logs.get(loaded.logs.size() - 1);
+                logList.addAll(loaded.logs);
+            }
+            state.exhausted = loaded.logs.size() < PAGE_SIZE;
+            statusLabel.setText("Showing " + logList.size() + " of " + state.total + " logs"
+                    + (state.exhausted ? "" : " (scroll for more)"));
+            if (onLoaded != null)
+                onLoaded.run();
+        }, "Failed to load medical logs");
+        task.runningProperty().addListener((obs, wasRunning, running) -> {
+            if (!running)
+                state.loading = false;
+        });
+    }
 
-            // Severity column
-            TableColumn<MedicalLog, String> sevCol = new TableColumn<>("Severity");
-            sevCol.setCellValueFactory(new PropertyValueFactory<>("severity"));
-            sevCol.setPrefWidth(100);
+    private TableView<MedicalLog> createTable(ObservableList<MedicalLog> logList, Map<Integer, Patient> patientMap) {
+        TableView<MedicalLog> table = new TableView<>(logList);
+
+        // Patient ID column
+        TableColumn<MedicalLog, Integer> patientIdCol = new TableColumn<>("Patient ID");
+        patientIdCol.setCellValueFactory(new PropertyValueFactory<>("patientId"));
+        patientIdCol.setPrefWidth(80);
+
+        // Patient Name column
+        TableColumn<MedicalLog, String> patientNameCol = new TableColumn<>("Patient Name");
+        patientNameCol.setCellValueFactory(cellData -> {
+            int patientId = cellData.getValue().getPatientId();
+            Patient p = patientMap.get(patientId);
+            if (p != null) {
+                return new SimpleStringProperty(p.getFirstName() + " " + p.getLastName());
+            }
+            return new SimpleStringProperty("Unknown");
+        });
+        patientNameCol.setPrefWidth(150);
+
+        // Patient Email column
+        TableColumn<MedicalLog, String> patientEmailCol = new TableColumn<>("Patient Email");
+        patientEmailCol.setCellValueFactory(cellData -> {
+            int patientId = cellData.getValue().getPatientId();
+            Patient p = patientMap.get(patientId);
+            if (p != null) {
+                String email = p.getEmail();
+                return new SimpleStringProperty(
+                        (email != null && !email.isEmpty()) ? email : "N/A");
+            }
+            return new SimpleStringProperty("N/A");
+        });
+        patientEmailCol.setPrefWidth(200);
 
-            // Content column
-            TableColumn<MedicalLog, String> contentCol = new TableColumn<>("Log Content");
-            contentCol.setCellValueFactory(new PropertyValueFactory<>("logContent"));
-            contentCol.setPrefWidth(350);
+        // Timestamp column
+        TableColumn<MedicalLog, String> dateCol = new TableColumn<>("Timestamp");
+        dateCol.setCellValueFactory(new PropertyValueFactory<>("timestamp"));
+        dateCol.setPrefWidth(160);
 
-            table.getColumns().addAll(patientIdCol, patientNameCol, patientEmailCol, dateCol, sevCol, contentCol);
+        // Severity column
+        TableColumn<MedicalLog, String> sevCol = new TableColumn<>("Severity");
+        sevCol.setCellValueFactory(new PropertyValueFactory<>("severity"));
+        sevCol.setPrefWidth(100);
 
-            stage.setScene(new Scene(table, 1100, 500));
-            stage.show();
+        // Content column
+        TableColumn<MedicalLog, String> contentCol = new TableColumn<>("Log Content");
+        contentCol.setCellValueFactory(new PropertyValueFactory<>("logContent"));
+        contentCol.setPrefWidth(350);
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            AlertUtils.showAlert("Error", "Failed to load medical logs:\n" + e.getMessage(),
-                    Alert.AlertType.ERROR);
-        }
+        table.getColumns().addAll(patientIdCol, patientNameCol, patientEmailCol, dateCol, sevCol, contentCol);
+        return table;
     }
 
     public Optional<Patient> searchPatientDialog(PatientService patientService) { // Changed return type and added param
@@ -228,4 +300,17 @@ public class MedicalLogView {
         label.setStyle("-fx-text-fill: red; -fx-font-size: 10px;");
         return label;
     }
+
+    private static class PageState {
+        MedicalLog last = null;
+        long total = 0;
+        boolean exhausted = false;
+        boolean loading = false;
+    }
+
+    private static class LoadedPage {
+        List<MedicalLog> logs;
+        long total;
+        final Map<Integer, Patient> patients = new HashMap<>();
+    }
 }
@@ -6,11 +6,11 @@ import javafx.scene.layout.GridPane;
 import org.example.model.Patient;
 import org.example.service.PatientService;
 import org.example.util.AlertUtils;
+import org.example.util.FxAsync;
 import org.example.util.ValidationUtils;
 import org.example.validation.InputValidator;
 import org.example.validation.PatientValidator;
 
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -185,17 +185,12 @@ public class PatientFormView {
         });
 
         Optional<Patient> result = updateDialog.showAndWait();
-        result.ifPresent(updatedPatient -> {
-            try {
-                patientService.updatePatient(updatedPatient, originalEmail);
-                AlertUtils.showAlert("Success", "Patient updated successfully!", Alert.AlertType.INFORMATION);
-                if (onSuccess != null)
-                    onSuccess.run();
-            } catch (SQLException e) {
-                AlertUtils.showAlert("Database Error", "Failed to update patient: " + e.getMessage(),
-                        Alert.AlertType.ERROR);
-            }
-        });
+        result.ifPresent(updatedPatient -> FxAsync.run(
+                () -> patientService.updatePatient(updatedPatient, originalEmail), () -> {
+                    AlertUtils.showAlert("Success", "Patient updated successfully!", Alert.AlertType.INFORMATION);
+                    if (onSuccess != null)
+                        onSuccess.run();
+                }, "Failed to update patient"));
     }
 
     public Optional<Integer> askForPatientId(String title) {
@@ -0,0 +1,58 @@
+package org.example.view;
+
+import javafx.scene.Scene;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import org.example.model.Appointment;
+import org.example.model.MedicalLog;
+import org.example.model.Patient;
+import org.example.model.Prescription;
+
+import java.util.List;
+
+public class PatientOverviewView {
+
+    /** One patient's appointments, latest prescriptions and latest medical logs on a single page. */
+    public void show(Patient patient, List<Appointment> appointments, List<Prescription> prescriptions,
+            List<MedicalLog> logs, long logCount) {
+        StringBuilder sb = new StringBuilder(patient.getFirstName() + " " + patient.getLastName()
+                + " (#" + patient.getId() + ")\n");
+        sb.append("Born ").append(patient.getDateOfBirth()).append(", ").append(patient.getPhone()).append(", ")
+                .append(patient.getEmail()).append("\n");
+
+        sb.append("\nAppointments (").append(appointments.size()).append("):\n");
+        if (appointments.isEmpty()) {
+            sb.append("  none\n");
+        }
+        for (Appointment a : appointments) {
+            sb.append("  ").append(a.getAppointmentDate()).append(' ').append(a.getAppointmentTime())
+                    .append(" with ").append(a.getDoctorName()).append(" - ").append(a.getStatus()).append("\n");
+        }
+
+        sb.append("\nLatest prescriptions:\n");
+        if (prescriptions.isEmpty()) {
+            sb.append("  none\n");
+        }
+        for (Prescription p : prescriptions) {
+            sb.append("  ").append(p.getPrescriptionDate()).append(" by ").append(p.getDoctorName()).append(": ")
+                    .append(p.getDiagnosis()).append("\n");
+        }
+
+        sb.append("\nLatest medical logs (").append(logs.size()).append(" of ").append(logCount).append("):\n");
+        if (logs.isEmpty()) {
+            sb.append("  none\n");
+        }
+        for (MedicalLog log : logs) {
+            sb.append("  ").append(log.getTimestamp()).append(" [").append(log.getSeverity()).append("] ")
+                    .append(log.getLogContent()).append("\n");
+        }
+
+        Stage stage = new Stage();
+        TextArea area = new TextArea(sb.toString());
+        area.setEditable(false);
+        stage.setScene(new Scene(new VBox(area), 600, 500));
+        stage.setTitle("Patient Overview - " + patient.getFirstName() + " " + patient.getLastName());
+        stage.show();
+    }
+}
@@ -2,23 +2,101 @@ package org.example.view;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 import org.example.model.Patient;
+import org.example.service.PatientService;
+import org.example.util.FxAsync;
 
 import java.util.List;
 import java.util.function.Consumer;
 
 public class PatientTableView {
 
+    private static final int PAGE_SIZE = 100;
+    // Fetch the next page once the scroll bar passes this fraction of its range
+    private static final double LOAD_MORE_THRESHOLD = 0.9;
+
     public void show(String title, List<Patient> patients, Consumer<Patient> onHistoryClick) {
         Stage stage = new Stage();
         stage.setTitle(title);
 
-        TableView<Patient> tableView = new TableView<>();
         ObservableList<Patient> patientList = FXCollections.observableArrayList(patients);
+        TableView<Patient> tableView = createTable(patientList, onHistoryClick);
+        // Search results: edits and deletions show up, new patients do not
+        TableUpdates.bind(stage, Patient.class, patientList, Patient::getId, () -> false);
+        Scene scene = new Scene(tableView, 800, 400);
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    /**
+     * Shows all patients, fetching them a page at a time as the user scrolls
+     * instead of loading the whole table up front. Writes made while it is
+     * open are patched in; new patients are appended once the last page is
+     * in, as until then they arrive with the pages.
+     */
+    public void showPaged(String title, PatientService patientService, Consumer<Patient> onHistoryClick) {
+        ObservableList<Patient> patientList = FXCollections.observableArrayList();
+        TableView<Patient> tableView = createTable(patientList, onHistoryClick);
+        Label statusLabel = new Label();
+        PageState state = new PageState();
+
+        loadNextPage(patientService, patientList, state, statusLabel, () -> {
+            Stage stage = new Stage();
+            stage.setTitle(title);
+            BorderPane root = new BorderPane(tableView);
+            root.setBottom(statusLabel);
+            Scene scene = new Scene(root, 800, 400);
+            stage.setScene(scene);
+            TableUpdates.bind(stage, Patient.class, patientList, Patient::getId, () -> state.exhausted);
+            stage.show();
+
+            // The scroll bar only exists once the table skin has been laid out
+            for (Node node : tableView.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                    bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= bar.getMax() * LOAD_MORE_THRESHOLD) {
+                            loadNextPage(patientService, patientList, state, statusLabel, null);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    private void loadNextPage(PatientService patientService, ObservableList<Patient> patientList,
+            PageState state, Label statusLabel, Runnable onLoaded) {
+        if (state.exhausted || state.loading) {
+            return;
+        }
+        state.loading = true;
+        statusLabel.setText("Loading...");
+        Task<List<Patient>> task = FxAsync.run(() -> patientService.getPatientsPage(state.lastId, PAGE_SIZE), page -> {
+            if (!page.isEmpty()) {
+                state.lastId = page.get(page.size() - 1).getId();
+                patientList.addAll(page);
+            }
+            state.exhausted = page.size() < PAGE_SIZE;
+            statusLabel.setText("Showing " + patientList.size() + " patients"
+                    + (state.exhausted ? "" : " (scroll for more)"));
+            if (onLoaded != null)
+                onLoaded.run();
+        }, "Failed to load patients");
+        task.runningProperty().addListener((obs, wasRunning, running) -> {
+            if (!running)
+                state.loading = false;
+        });
+    }
+
+    private TableView<Patient> createTable(ObservableList<Patient> patientList, Consumer<Patient> onHistoryClick) {
+        TableView<Patient> tableView = new TableView<>();
         tableView.setItems(patientList);
 
         TableColumn<Patient, Integer> idColumn = new TableColumn<>("ID");
@@ -57,8 +135,12 @@ public class PatientTableView {
         });
 
         tableView.getColumns().addAll(idColumn, firstNameColumn, lastNameColumn, actionsColumn);
-        Scene scene = new Scene(tableView, 800, 400);
-        stage.setScene(scene);
-        stage.show();
+        return tableView;
+    }
+
+    private static class PageState {
+        int lastId = 0;
+        boolean exhausted = false;
+        boolean loading = false;
     }
 }
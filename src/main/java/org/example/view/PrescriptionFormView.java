@@ -18,17 +18,30 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 public class PrescriptionFormView {
 
     private final PrescriptionValidator prescriptionValidator = new PrescriptionValidator();
 
-    public Dialog<Map<String, Object>> createPrescriptionDialog(String title, Prescription existing,
+    /** A prescription together with its items, as entered in the dialog or loaded for editing. */
+    public static final class PrescriptionWithItems {
+        private final Prescription prescription;
+        private final List<PrescriptionItem> items;
+
+        public PrescriptionWithItems(Prescription prescription, List<PrescriptionItem> items) {
+            this.prescription = prescription;
+            this.items = items;
+        }
+
+        public Prescription getPrescription() { return prescription; }
+        public List<PrescriptionItem> getItems() { return items; }
+    }
+
+    public Dialog<PrescriptionWithItems> createPrescriptionDialog(String title, Prescription existing,
             List<PrescriptionItem> existingItems,
             PatientService patientService,
             DoctorService doctorService) {
-        Dialog<Map<String, Object>> dialog = new Dialog<>();
+        Dialog<PrescriptionWithItems> dialog = new Dialog<>();
         dialog.setTitle(title);
         ButtonType okParams = new ButtonType("Save", ButtonBar.ButtonData.OK_DONE);
         dialog.getDialogPane().getButtonTypes().addAll(okParams, ButtonType.CANCEL);
@@ -143,6 +156,9 @@ public class PrescriptionFormView {
                     pObj.setNotes(notes.getText());
 
                     PrescriptionItem item = new PrescriptionItem();
+                    if (firstItem != null) {
+                        item.setId(firstItem.getId());
+                    }
                     item.setMedication(med.getText());
                     item.setDosage(dose.getText());
                     try {
@@ -153,7 +169,7 @@ public class PrescriptionFormView {
                     }
                     item.setFrequency(frequency.getText());
 
-                    return Map.of("prescription", pObj, "items", Collections.singletonList(item));
+                    return new PrescriptionWithItems(pObj, Collections.singletonList(item));
                 } catch (SQLException e) {
                     AlertUtils.showAlert("Database Error", e.getMessage(), Alert.AlertType.ERROR);
                 } catch (Exception e) {
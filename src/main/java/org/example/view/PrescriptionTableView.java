@@ -19,10 +19,13 @@ import org.example.util.AlertUtils;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 
 public class PrescriptionTableView {
 
-    public void show(List<Prescription> prescriptions, PrescriptionService prescriptionService) {
+    public void show(List<Prescription> prescriptions, Map<Integer, List<PrescriptionItem>> itemsById,
+            PrescriptionService prescriptionService) {
         Stage stage = new Stage();
         TableView<Prescription> table = new TableView<>(
                 FXCollections.observableArrayList(prescriptions));
@@ -39,7 +42,10 @@ public class PrescriptionTableView {
         TableColumn<Prescription, String> col2 = new TableColumn<>("Diagnosis");
         col2.setCellValueFactory(new PropertyValueFactory<>("diagnosis"));
 
-        table.getColumns().addAll(colId, col1, col2);
+        TableColumn<Prescription, String> col3 = new TableColumn<>("Medications");
+        col3.setCellValueFactory(c -> new SimpleStringProperty(medicationSummary(itemsById.get(c.getValue().getId()))));
+
+        table.getColumns().addAll(colId, col1, col2, col3);
 
         // Add details button logic if needed, simplified for now
         table.setRowFactory(tv -> {
@@ -52,7 +58,7 @@ public class PrescriptionTableView {
             return row;
         });
 
-        Scene scene = new Scene(table, 500, 400);
+        Scene scene = new Scene(table, 700, 400);
         stage.setTitle("Prescriptions");
         stage.setScene(scene);
         stage.show();
@@ -80,4 +86,17 @@ public class PrescriptionTableView {
             AlertUtils.showAlert("Error", e.getMessage(), Alert.AlertType.ERROR);
         }
     }
+
+    static String medicationSummary(List<PrescriptionItem> items) {
+        if (items == null) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner(", ");
+        for (PrescriptionItem i : items) {
+            joiner.add(i.getDosage() != null && !i.getDosage().isEmpty()
+                    ? i.getMedication() + " (" + i.getDosage() + ")"
+                    : i.getMedication());
+        }
+        return joiner.toString();
+    }
 }
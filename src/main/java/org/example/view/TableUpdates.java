@@ -0,0 +1,106 @@
+package org.example.view;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
+import org.example.service.ChangeBus;
+import org.example.service.EntityChange;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keeps an open window's rows in step with the {@link ChangeBus} instead of
+ * reloading it. Subscriptions last until the stage is hidden.
+ */
+final class TableUpdates {
+
+    private TableUpdates() {
+    }
+
+    /** Runs {@code listener} on the FX thread for each change to {@code type} while {@code stage} is open. */
+    static <E> void onChange(Stage stage, Class<E> type, Consumer<EntityChange<E>> listener) {
+        ChangeBus.Subscription subscription = ChangeBus.subscribe(type,
+                change -> Platform.runLater(() -> listener.accept(change)));
+        stage.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> subscription.cancel());
+    }
+
+    /**
+     * Patches {@code rows} as {@code type} changes: updated rows are replaced
+     * in place and deleted rows removed, so sorting, selection and scroll
+     * position survive. Created rows are appended only while
+     * {@code acceptCreated} is true, i.e. when the table lists everything.
+     * Changes that arrive together (an import, say) are applied in one pass.
+     */
+    static <T> void bind(Stage stage, Class<T> type, ObservableList<T> rows, ToIntFunction<T> idOf,
+            BooleanSupplier acceptCreated) {
+        Batch<T> batch = new Batch<>(rows, idOf, acceptCreated);
+        ChangeBus.Subscription subscription = ChangeBus.subscribe(type, batch::offer);
+        stage.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> subscription.cancel());
+    }
+
+    private static final class Batch<T> {
+        private final ObservableList<T> rows;
+        private final ToIntFunction<T> idOf;
+        private final BooleanSupplier acceptCreated;
+        private final Queue<EntityChange<T>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        Batch(ObservableList<T> rows, ToIntFunction<T> idOf, BooleanSupplier acceptCreated) {
+            this.rows = rows;
+            this.idOf = idOf;
+            this.acceptCreated = acceptCreated;
+        }
+
+        void offer(EntityChange<T> change) {
+            pending.add(change);
+            if (scheduled.compareAndSet(false, true)) {
+                Platform.runLater(this::drain);
+            }
+        }
+
+        // FX thread: one scan of the rows however many changes are queued
+        private void drain() {
+            scheduled.set(false);
+            Map<Integer, EntityChange<T>> latest = new LinkedHashMap<>();
+            Set<Integer> created = new HashSet<>();
+            EntityChange<T> change;
+            while ((change = pending.poll()) != null) {
+                latest.put(change.getId(), change);
+                if (change.getType() == EntityChange.Type.CREATED) {
+                    created.add(change.getId());
+                }
+            }
+            if (latest.isEmpty()) {
+                return;
+            }
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                int id = idOf.applyAsInt(rows.get(i));
+                EntityChange<T> last = latest.remove(id);
+                if (last == null) {
+                    continue;
+                }
+                if (last.getType() == EntityChange.Type.DELETED) {
+                    rows.remove(i);
+                } else {
+                    rows.set(i, last.getEntity());
+                }
+            }
+            if (!acceptCreated.getAsBoolean()) {
+                return;
+            }
+            List<T> added = new ArrayList<>();
+            for (EntityChange<T> last : latest.values()) {
+                if (created.contains(last.getId()) && last.getType() != EntityChange.Type.DELETED) {
+                    added.add(last.getEntity());
+                }
+            }
+            rows.addAll(added);
+        }
+    }
+}
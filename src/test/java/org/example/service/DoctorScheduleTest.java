@@ -0,0 +1,94 @@
+package org.example.service;
+
+import org.example.model.Appointment;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorScheduleTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    private static final int STEP = 30 * 60;
+
+    @Test
+    void backToBackSlotsDoNotConflict() {
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.add(appointment(1, "09:00", 30, "scheduled"));
+
+        assertTrue(schedule.conflicts(at("09:30"), at("10:00"), 0).isEmpty());
+        assertTrue(schedule.conflicts(at("08:30"), at("09:00"), 0).isEmpty());
+    }
+
+    @Test
+    void overlapByOneSecondConflicts() {
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.add(appointment(1, "09:00", 30, "scheduled"));
+
+        assertEquals(List.of(1), ids(schedule.conflicts(at("09:30") - 1, at("10:00"), 0)));
+        assertEquals(List.of(1), ids(schedule.conflicts(at("08:30"), at("09:00") + 1, 0)));
+    }
+
+    @Test
+    void longAppointmentThatStartedEarlyConflicts() {
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.add(appointment(1, "08:00", 180, "scheduled"));
+        schedule.add(appointment(2, "10:00", 15, "scheduled"));
+
+        assertEquals(List.of(1), ids(schedule.conflicts(at("10:30"), at("11:00"), 0)));
+        assertEquals(List.of(1, 2), ids(schedule.conflicts(at("10:00"), at("10:30"), 0)));
+        assertTrue(schedule.conflicts(at("11:00"), at("11:30"), 0).isEmpty());
+    }
+
+    @Test
+    void cancelledAppointmentFreesItsSlot() {
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.add(appointment(1, "09:00", 30, "Cancelled"));
+        assertTrue(schedule.isEmpty());
+        assertTrue(schedule.conflicts(at("09:00"), at("09:30"), 0).isEmpty());
+
+        schedule.add(appointment(2, "09:00", 30, "scheduled"));
+        assertEquals(List.of(2), ids(schedule.conflicts(at("09:00"), at("09:30"), 0)));
+        // Cancelling a booking: AppointmentIndex removes it and re-adds the cancelled copy
+        schedule.remove(2);
+        schedule.add(appointment(2, "09:00", 30, "cancelled"));
+        assertTrue(schedule.conflicts(at("09:00"), at("09:30"), 0).isEmpty());
+        assertEquals(List.of(at("09:00")), schedule.freeStarts(at("09:00"), at("17:00"), STEP, STEP, 1));
+    }
+
+    @Test
+    void rescheduleIgnoresTheAppointmentBeingMoved() {
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.add(appointment(1, "09:00", 30, "scheduled"));
+
+        assertTrue(schedule.conflicts(at("09:15"), at("09:45"), 1).isEmpty());
+    }
+
+    @Test
+    void freeStartsSkipPastConflicts() {
+        DoctorSchedule schedule = new DoctorSchedule();
+        schedule.add(appointment(1, "09:00", 90, "scheduled"));
+        schedule.add(appointment(2, "11:00", 30, "scheduled"));
+
+        assertEquals(List.of(at("10:30"), at("11:30"), at("12:00")),
+                schedule.freeStarts(at("09:00"), at("17:00"), STEP, STEP, 3));
+        assertEquals(List.of(at("16:30")), schedule.freeStarts(at("16:10"), at("17:00"), STEP, STEP, 5));
+    }
+
+    private static Appointment appointment(int id, String time, int minutes, String status) {
+        Appointment appt = new Appointment(id, 1, 1, DAY, LocalTime.parse(time), status);
+        appt.setDurationMinutes(minutes);
+        return appt;
+    }
+
+    private static int at(String time) {
+        return LocalTime.parse(time).toSecondOfDay();
+    }
+
+    private static List<Integer> ids(List<Appointment> appointments) {
+        return appointments.stream().map(Appointment::getId).toList();
+    }
+}